@@ -0,0 +1,59 @@
+package com.pixelpro.auth.config;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emisión y validación de JWT: generateToken (login/refresh) y parseToken (cada request autenticada),
+ * con la caché de claims acertando (mismo token) y fallando (token nuevo en cada llamada).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private AuthUser user;
+    private String token;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        jwtService = new JwtService();
+        setField("secretKey", Base64.getEncoder().encodeToString(new byte[64]));
+        setField("expirationTime", 900_000L);
+        setField("claimsCacheMaxSize", 10_000L);
+        jwtService.init();
+
+        user = new AuthUser(42L, "cliente@example.com", null, "CLIENTE", 7L, true);
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims parseTokenCached() {
+        return jwtService.parseToken(token);
+    }
+
+    @Benchmark
+    public Claims generateAndParseUncached() {
+        // Cada token es distinto (jti aleatorio): fuerza base64 + JSON + HMAC en el parseo
+        return jwtService.parseToken(jwtService.generateToken(user));
+    }
+
+    private void setField(String name, Object value) throws ReflectiveOperationException {
+        Field field = JwtService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(jwtService, value);
+    }
+}
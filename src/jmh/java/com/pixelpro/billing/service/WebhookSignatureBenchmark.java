@@ -0,0 +1,56 @@
+package com.pixelpro.billing.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validación HMAC-SHA256 de la firma de los webhooks de Mercado Pago (cada notificación entrante)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WebhookSignatureBenchmark {
+
+    private static final String WEBHOOK_KEY = "benchmark-webhook-secret";
+    private static final String REQUEST_ID = "bb56a2f1-6aae-46ac-982e-9dcd3581d08e";
+    private static final String DATA_ID = "123456789";
+
+    private WebhookSignatureVerifier verifier;
+    private String validSignature;
+    private String invalidSignature;
+
+    @Setup
+    public void setUp() throws Exception {
+        verifier = new WebhookSignatureVerifier(WEBHOOK_KEY);
+
+        String ts = "1742505638683";
+        String manifest = "id:" + DATA_ID + ";request-id:" + REQUEST_ID + ";ts:" + ts + ";";
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(WEBHOOK_KEY.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String v1 = HexFormat.of().formatHex(mac.doFinal(manifest.getBytes(StandardCharsets.UTF_8)));
+
+        validSignature = "ts=" + ts + ",v1=" + v1;
+        invalidSignature = "ts=" + ts + ",v1=" + "0".repeat(64);
+        if (!verifier.isValid(validSignature, REQUEST_ID, DATA_ID)) {
+            throw new IllegalStateException("La firma de referencia del benchmark no es válida");
+        }
+    }
+
+    @Benchmark
+    public boolean validSignature() {
+        return verifier.isValid(validSignature, REQUEST_ID, DATA_ID);
+    }
+
+    @Benchmark
+    public boolean invalidSignature() {
+        return verifier.isValid(invalidSignature, REQUEST_ID, DATA_ID);
+    }
+}
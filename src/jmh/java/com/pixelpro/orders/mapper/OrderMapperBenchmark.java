@@ -0,0 +1,145 @@
+package com.pixelpro.orders.mapper;
+
+import com.pixelpro.billing.entity.InvoiceEntity;
+import com.pixelpro.billing.entity.PaymentEntity;
+import com.pixelpro.billing.entity.enums.*;
+import com.pixelpro.catalog.entity.ProductEntity;
+import com.pixelpro.customers.entity.AddressEntity;
+import com.pixelpro.customers.entity.CustomerEntity;
+import com.pixelpro.customers.entity.enums.CustomerType;
+import com.pixelpro.customers.entity.enums.DocumentType;
+import com.pixelpro.orders.dto.OrderDto;
+import com.pixelpro.orders.entity.OrderEntity;
+import com.pixelpro.orders.entity.OrderItemEntity;
+import com.pixelpro.orders.entity.enums.DeliveryType;
+import com.pixelpro.orders.entity.enums.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderMapper.toDto sobre una orden de 50 items (detalle de orden y listados del panel admin)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderMapperBenchmark {
+
+    private static final int ITEM_COUNT = 50;
+
+    private AnnotationConfigApplicationContext context;
+    private OrderMapper orderMapper;
+    private OrderEntity order;
+
+    @Setup
+    public void setUp() {
+        // Implementaciones generadas por MapStruct, cableadas igual que en la aplicación
+        context = new AnnotationConfigApplicationContext(
+                "com.pixelpro.orders.mapper", "com.pixelpro.customers.mapper", "com.pixelpro.billing.mapper");
+        orderMapper = context.getBean(OrderMapper.class);
+        order = buildOrder();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDto toDto() {
+        return orderMapper.toDto(order);
+    }
+
+    private static OrderEntity buildOrder() {
+        CustomerEntity customer = CustomerEntity.builder()
+                .id(1L)
+                .firstName("Juan")
+                .lastName("Pérez")
+                .email("juan.perez@example.com")
+                .phoneNumber("987654321")
+                .documentType(DocumentType.DNI)
+                .documentNumber("12345678")
+                .customerType(CustomerType.NATURAL)
+                .build();
+
+        AddressEntity address = AddressEntity.builder()
+                .id(1L)
+                .addressType("CASA")
+                .department("Lima")
+                .province("Lima")
+                .district("Miraflores")
+                .addressLine("Av. Larco 123")
+                .customer(customer)
+                .build();
+        customer.getAddresses().add(address);
+
+        OrderEntity order = OrderEntity.builder()
+                .id(1L)
+                .code("ORD-BENCH-0001")
+                .status(OrderStatus.CONFIRMADO)
+                .deliveryType(DeliveryType.A_DOMICILIO)
+                .customer(customer)
+                .shippingAddress(address)
+                .shippingCost(new BigDecimal("15.00"))
+                .discount(BigDecimal.ZERO)
+                .build();
+        order.setCreatedAt(LocalDateTime.now());
+
+        List<OrderItemEntity> items = new ArrayList<>();
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 1; i <= ITEM_COUNT; i++) {
+            ProductEntity product = ProductEntity.builder()
+                    .id((long) i)
+                    .sku("SKU-" + i)
+                    .name("Producto " + i)
+                    .price(new BigDecimal("199.90"))
+                    .imageUrl("/uploads/products/" + i + ".png")
+                    .status("ACTIVO")
+                    .build();
+            OrderItemEntity item = OrderItemEntity.builder()
+                    .id((long) i)
+                    .quantity((short) 2)
+                    .unitPrice(product.getPrice())
+                    .product(product)
+                    .order(order)
+                    .build();
+            items.add(item);
+            subtotal = subtotal.add(product.getPrice().multiply(BigDecimal.valueOf(2)));
+        }
+        order.setItems(items);
+        order.setSubtotal(subtotal);
+        order.setTotal(subtotal.add(order.getShippingCost()));
+
+        order.setPayments(new ArrayList<>(List.of(PaymentEntity.builder()
+                .id(1L)
+                .amount(order.getTotal())
+                .currency(CurrencyCode.PEN)
+                .method(PaymentMethod.MERCADO_PAGO)
+                .status(PaymentStatus.CONFIRMADO)
+                .transactionId("MP-123456789")
+                .paidAt(LocalDateTime.now())
+                .order(order)
+                .build())));
+
+        order.setInvoice(InvoiceEntity.builder()
+                .id(1L)
+                .type(InvoiceType.BOLETA)
+                .serie("B001")
+                .number("00000001")
+                .issuedAt(LocalDateTime.now())
+                .totalAmount(order.getTotal())
+                .currency(CurrencyCode.PEN)
+                .status(InvoiceStatus.EMITIDO)
+                .order(order)
+                .build());
+        return order;
+    }
+}
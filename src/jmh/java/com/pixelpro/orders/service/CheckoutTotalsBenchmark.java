@@ -0,0 +1,43 @@
+package com.pixelpro.orders.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo de subtotal y total del checkout (BigDecimal) para un carrito de 50 líneas
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CheckoutTotalsBenchmark {
+
+    private static final int LINE_COUNT = 50;
+    private static final BigDecimal SHIPPING_COST = new BigDecimal("15.00");
+
+    private BigDecimal[] prices;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        prices = new BigDecimal[LINE_COUNT];
+        quantities = new int[LINE_COUNT];
+        for (int i = 0; i < LINE_COUNT; i++) {
+            prices[i] = new BigDecimal("199.90").add(BigDecimal.valueOf(i));
+            quantities[i] = (i % 3) + 1;
+        }
+    }
+
+    @Benchmark
+    public BigDecimal total() {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < LINE_COUNT; i++) {
+            subtotal = subtotal.add(CheckoutTransactionService.lineTotal(prices[i], quantities[i]));
+        }
+        return subtotal.add(SHIPPING_COST);
+    }
+}
@@ -0,0 +1,74 @@
+package com.pixelpro.auth.config;
+
+import com.pixelpro.auth.entity.UserEntity;
+import lombok.Getter;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal autenticado. Lleva el ID de usuario y el rol para que los endpoints no tengan que
+ * volver a consultar el usuario por email.
+ */
+@Getter
+public class AuthUser implements UserDetails, CredentialsContainer {
+
+    private final Long id;
+    private final String email;
+    private String password;
+    private final String role;
+    private final boolean enabled;
+
+    public AuthUser(Long id, String email, String password, String role, boolean enabled) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.role = role;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Desde la entidad (login / registro). Requiere el rol ya cargado.
+     */
+    public static AuthUser from(UserEntity user) {
+        return new AuthUser(
+                user.getId(),
+                user.getEmail(),
+                user.getPasswordHash(),
+                user.getRole().getRoleName().name(),
+                user.isEnabled());
+    }
+
+    /**
+     * Desde los claims de un token ya verificado (sin contraseña)
+     */
+    public static AuthUser fromToken(Long id, String email, String role) {
+        return new AuthUser(id, email, null, role, true);
+    }
+
+    public AuthUser withPassword(String newPassword) {
+        return new AuthUser(id, email, newPassword, role, enabled);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        if (role == null || role.isBlank()) {
+            return List.of();
+        }
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        this.password = null;
+    }
+}
@@ -0,0 +1,118 @@
+package com.pixelpro.auth.config;
+
+import com.pixelpro.common.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * PasswordEncoder que limita cuántos hashes (BCrypt) se calculan a la vez.
+ * Así un pico de logins/registros usa como máximo N núcleos y no deja sin CPU al resto de la API.
+ * El hash corre en el hilo de la request: si no hay permiso libre dentro de la espera máxima, o ya hay
+ * demasiadas requests esperando, falla rápido con 503 sin haber empezado a hashear. Un hash que empezó
+ * siempre termina (BCrypt no se puede interrumpir), por eso el límite se aplica antes y no durante.
+ * Las métricas (latencia por operación, rechazos, hashes en curso y en espera) se publican en Micrometer
+ * bajo {@code pixelpro.auth.password.hash*}.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final String METRIC_NAME = "pixelpro.auth.password.hash";
+
+    private final PasswordEncoder delegate;
+    private final Semaphore permits;
+    private final int concurrency;
+    private final int maxWaiting;
+    private final long maxWaitNanos;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter busyRejections;
+    private final Counter timeoutRejections;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int concurrency, int maxWaiting, Duration maxWait,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        // Justo (FIFO): las requests que esperan obtienen el permiso en orden de llegada
+        this.permits = new Semaphore(concurrency, true);
+        this.concurrency = concurrency;
+        this.maxWaiting = maxWaiting;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+        this.busyRejections = rejectionCounter(meterRegistry, "busy");
+        this.timeoutRejections = rejectionCounter(meterRegistry, "timeout");
+        Gauge.builder(METRIC_NAME + ".active", this, encoder -> encoder.concurrency - encoder.permits.availablePermits())
+                .description("Hashes de contraseña en curso")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".waiting", permits, Semaphore::getQueueLength)
+                .description("Requests esperando turno para hashear")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Solo inspecciona el prefijo/costo del hash: no consume un permiso
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T execute(Timer timer, Supplier<T> task) {
+        acquire();
+        try {
+            return timer.record(task);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        // Aproximado (sin bloqueo): basta para acotar cuántos hilos de Tomcat quedan esperando
+        if (permits.getQueueLength() >= maxWaiting) {
+            busyRejections.increment();
+            log.warn("Demasiadas operaciones de hashing en espera ({})", permits.getQueueLength());
+            throw new ServiceUnavailableException("Servicio de autenticación saturado, intente nuevamente en unos segundos");
+        }
+        try {
+            if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                timeoutRejections.increment();
+                throw new ServiceUnavailableException("Servicio de autenticación saturado, intente nuevamente en unos segundos");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Operación de autenticación interrumpida");
+        }
+    }
+
+    private static Timer hashTimer(MeterRegistry registry, String operation) {
+        return Timer.builder(METRIC_NAME)
+                .description("Duración del hash de contraseña (sin contar la espera por un permiso)")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry registry, String reason) {
+        return Counter.builder(METRIC_NAME + ".rejected")
+                .description("Operaciones de hashing rechazadas con 503 por saturación")
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
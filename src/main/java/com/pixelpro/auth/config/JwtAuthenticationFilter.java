@@ -1,10 +1,14 @@
 package com.pixelpro.auth.config;
 
+import com.pixelpro.auth.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -15,13 +19,42 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String TIMER_NAME = "pixelpro.auth.jwt.filter";
+
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+
+    // Coste de autenticar por token, por resultado (se crean una vez, no por request)
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
+    private final Timer invalidTimer;
+
+    /**
+     * true: la autenticación se construye desde los claims firmados del token (sin consultar la BD).
+     * false: se carga el usuario desde la BD en cada request (modo anterior).
+     */
+    @Value("${app.security.jwt.stateless:true}")
+    private boolean stateless;
+
+    public JwtAuthenticationFilter(
+            JwtService jwtService,
+            UserDetailsService userDetailsService,
+            TokenRevocationService tokenRevocationService,
+            MeterRegistry meterRegistry
+    ) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.authenticatedTimer = filterTimer(meterRegistry, "authenticated");
+        this.rejectedTimer = filterTimer(meterRegistry, "rejected");
+        this.invalidTimer = filterTimer(meterRegistry, "invalid");
+    }
 
     @Override
     protected void doFilterInternal(
@@ -32,7 +65,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
 
         // Si no hay header o no comienza con "Bearer ", continuar con el siguiente filtro
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -43,19 +75,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Extraer el token JWT (después de "Bearer ")
         jwt = authHeader.substring(7);
 
+        long start = System.nanoTime();
+        Timer outcome = rejectedTimer;
         try {
-            // Extraer el email del usuario del token
-            userEmail = jwtService.extractUsername(jwt);
-
-            // Si el email no es nulo y el usuario no está autenticado aún
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Verificar firma y expiración una sola vez
+            Claims claims = jwtService.parseToken(jwt);
+            String userEmail = claims.getSubject();
 
-                // Cargar los detalles del usuario desde la base de datos
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            // Si el email no es nulo, el usuario no está autenticado aún y el token no fue revocado
+            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null
+                    && !tokenRevocationService.isRevoked(userEmail, claims.getIssuedAt())
+                    && !tokenRevocationService.isTokenRevoked(claims.getId())) {
 
-                // Validar el token
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                UserDetails userDetails = stateless
+                        ? AuthUser.fromToken(jwtService.extractUserId(claims), userEmail, claims.get("role", String.class))
+                        : this.userDetailsService.loadUserByUsername(userEmail);
 
+                if (userDetails.isEnabled()) {
                     // Crear el objeto de autenticación
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
@@ -68,16 +104,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                     // Actualizar el SecurityContext
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    outcome = authenticatedTimer;
                 }
             }
         } catch (Exception e) {
             // Si hay algún error en la validación del token, simplemente continuar
             // El RestAuthenticationEntryPoint manejará los errores de autenticación
             logger.error("Error al procesar el token JWT: " + e.getMessage());
+            outcome = invalidTimer;
         }
+        outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
         // Continuar con la cadena de filtros
         filterChain.doFilter(request, response);
     }
-}
 
+    private static Timer filterTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder(TIMER_NAME)
+                .description("Validación del JWT y construcción de la autenticación")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -1,6 +1,10 @@
 package com.pixelpro.auth.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -11,9 +15,16 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -26,13 +37,28 @@ public class JwtService {
     @Value("${jwt.expiration}")
     private long expirationTime;
 
+    @Value("${app.security.jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
     private SecretKey key; // Clave lista para usar
 
+    private JwtParser parser; // Inmutable y thread-safe: se construye una sola vez
+
+    // Claims ya verificados, por hash SHA-256 del token. Cada entrada expira junto con el token.
+    private Cache<String, Claims> claimsCache;
+
     // 1. Inicialización correcta de la clave inyectada
     @PostConstruct
     public void init() {
         // Asume que el valor de application.properties está en formato Base64.
         this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parser()
+                .verifyWith(this.key)
+                .build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(Expiry.creating((String tokenHash, Claims claims) -> timeToExpiration(claims)))
+                .build();
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -46,9 +72,16 @@ public class JwtService {
 
         claims.put("role", role);
 
+        // ID de usuario: /me y los endpoints no necesitan consultarlo por email
+        if (userDetails instanceof AuthUser authUser) {
+            claims.put("uid", authUser.getId());
+        }
+
         return Jwts.builder()
                 .claims(claims)
                 .subject(userDetails.getUsername())
+                // jti: permite revocar este token puntualmente (logout)
+                .id(UUID.randomUUID().toString())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 // Usamos el campo inyectado 'expirationTime'
                 .expiration(new Date(System.currentTimeMillis() + expirationTime))
@@ -57,6 +90,22 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * Verifica firma y expiración y devuelve los claims en una sola pasada.
+     * Lanza JwtException si el token es inválido o expiró.
+     */
+    public Claims parseToken(String token) {
+        return extractAllClaims(token);
+    }
+
+    /**
+     * ID de usuario del claim "uid". Null en tokens emitidos antes de incluirlo.
+     */
+    public Long extractUserId(Claims claims) {
+        Number uid = claims.get("uid", Number.class);
+        return uid != null ? uid.longValue() : null;
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -67,24 +116,39 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        // Usamos la clave inicializada 'this.key' para la verificación
-        return Jwts.parser()
-                .verifyWith(this.key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        // Un token repetido (misma sesión del SPA) evita base64, JSON y HMAC.
+        // La clave es el hash del token completo: un payload alterado nunca coincide con una entrada verificada.
+        return claimsCache.get(sha256Hex(token), tokenHash -> parser.parseSignedClaims(token).getPayload());
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    private static Duration timeToExpiration(Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return Duration.ZERO;
+        }
+        Duration remaining = Duration.between(Instant.now(), expiration.toInstant());
+        return remaining.isNegative() ? Duration.ZERO : remaining;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Hash SHA-256 en hexadecimal (clave de la caché de claims y de los refresh tokens guardados)
+     */
+    public static String sha256Hex(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        // Una sola verificación (o un acierto de caché); el parser ya rechaza tokens expirados
+        final Claims claims = extractAllClaims(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,204 @@
+package com.pixelpro.auth.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitador de tráfico delante de JwtAuthenticationFilter:
+ * 1. Token bucket por cliente y grupo de rutas (por usuario si trae un token válido, si no por IP) -> 429.
+ * 2. Límite global de requests concurrentes a la API, para rechazar antes de agotar los hilos de Tomcat -> 503.
+ *    No protege el pool de BD (muchas requests no usan conexión: caché del catálogo, espera a Mercado Pago):
+ *    eso lo acota el connection-timeout de Hikari, que termina en 503 (GlobalExceptionHandler).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final JwtService jwtService;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    // Requests por minuto (también es la ráfaga máxima) de cada grupo de rutas
+    @Value("${app.rate-limit.auth.per-minute:10}")
+    private int authPerMinute;
+
+    @Value("${app.rate-limit.webhook.per-minute:120}")
+    private int webhookPerMinute;
+
+    @Value("${app.rate-limit.public.per-minute:300}")
+    private int publicPerMinute;
+
+    @Value("${app.rate-limit.default.per-minute:600}")
+    private int defaultPerMinute;
+
+    @Value("${app.rate-limit.max-clients:100000}")
+    private long maxClients;
+
+    @Value("${app.rate-limit.max-concurrent-requests:150}")
+    private int maxConcurrentRequests;
+
+    @Value("${app.rate-limit.concurrency-wait:100ms}")
+    private Duration concurrencyWait;
+
+    // Buckets por "grupo|cliente". Acotado y concurrente: los clientes inactivos se expulsan solos.
+    private Cache<String, TokenBucket> buckets;
+
+    private Semaphore concurrencyLimiter;
+
+    @PostConstruct
+    public void init() {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        this.concurrencyLimiter = new Semaphore(maxConcurrentRequests);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/")
+                || "OPTIONS".equalsIgnoreCase(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        // 1. Rate limit por cliente
+        String path = request.getRequestURI();
+        String group = resolveGroup(path);
+        int perMinute = limitFor(group);
+        String key = group + "|" + resolveClient(request);
+
+        long retryAfterNanos = buckets.get(key, k -> new TokenBucket(perMinute)).tryConsume();
+        if (retryAfterNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos));
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.sendError(429, "Too Many Requests");
+            return;
+        }
+
+        // 2. Límite global de concurrencia
+        boolean acquired;
+        try {
+            acquired = concurrencyLimiter.tryAcquire(concurrencyWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.warn("Servidor saturado: {} requests concurrentes, rechazando {}", maxConcurrentRequests, path);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Service Unavailable");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            concurrencyLimiter.release();
+        }
+    }
+
+    private String resolveGroup(String path) {
+        if (path.startsWith("/api/auth/login") || path.startsWith("/api/auth/register")
+                || path.startsWith("/api/auth/refresh")) {
+            return "auth";
+        }
+        if (path.startsWith("/api/payments/")) {
+            return "webhook";
+        }
+        if (path.startsWith("/api/public/")) {
+            return "public";
+        }
+        return "default";
+    }
+
+    private int limitFor(String group) {
+        return switch (group) {
+            case "auth" -> authPerMinute;
+            case "webhook" -> webhookPerMinute;
+            case "public" -> publicPerMinute;
+            default -> defaultPerMinute;
+        };
+    }
+
+    /**
+     * Usuario del token si es válido (la verificación queda en la caché de JwtService y
+     * el filtro JWT no la repite); si no, la IP. Un token inválido nunca elige el bucket de otro usuario.
+     * La IP la resuelve el RemoteIpValve de Tomcat (server.forward-headers-strategy=native): el salto más a la
+     * derecha de X-Forwarded-For que no es un proxy de confianza, así que un cliente no puede elegirla.
+     */
+    private String resolveClient(HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                Claims claims = jwtService.parseToken(authHeader.substring(7));
+                if (claims.getSubject() != null) {
+                    return "user:" + claims.getSubject();
+                }
+            } catch (Exception e) {
+                // Token inválido: se limita por IP
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * Token bucket sin bloqueos (algoritmo GCRA): un único AtomicLong con el "tiempo teórico de llegada".
+     * Capacidad = perMinute requests de ráfaga, recarga continua de perMinute por minuto.
+     */
+    static final class TokenBucket {
+        private final long emissionIntervalNanos;
+        private final long burstToleranceNanos;
+        private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+
+        TokenBucket(int perMinute) {
+            int limit = Math.max(perMinute, 1);
+            this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / limit;
+            this.burstToleranceNanos = emissionIntervalNanos * limit;
+        }
+
+        /**
+         * @return 0 si se permite la request; si no, nanosegundos hasta que haya un token disponible
+         */
+        long tryConsume() {
+            while (true) {
+                long now = System.nanoTime();
+                long tat = theoreticalArrival.get();
+                long newTat = Math.max(tat, now) + emissionIntervalNanos;
+                long excess = newTat - now - burstToleranceNanos;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.pixelpro.auth.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,15 +14,17 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -30,9 +34,22 @@ public class SecurityConfig {
 
     private final RestAuthenticationEntryPoint unauthorizedHandler;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
     @Value("${app.cors.allowed-origins}")
     private String allowedOrigins;
 
+    @Value("${app.security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.security.password.max-concurrent-hashes:2}")
+    private int maxConcurrentHashes;
+
+    @Value("${app.security.password.max-waiting:100}")
+    private int maxWaitingHashes;
+
+    @Value("${app.security.password.max-wait:5s}")
+    private Duration maxHashWait;
+
     @Bean
     SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
         return httpSecurity
@@ -47,9 +64,13 @@ public class SecurityConfig {
                         // 1. Reglas Públicas (Storefront público y Auth)
                         .requestMatchers(
                                 "/api/public/**", "/uploads/**", "/api/payments/**",
-                                "/api/auth/login", "/api/auth/register",
+                                "/api/auth/login", "/api/auth/register", "/api/auth/refresh",
                                 "/swagger-ui/**", "/v3/api-docs/**"
                         ).permitAll()
+                        // Health checks y scrape de métricas (en producción van en el puerto de management)
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        // Despacho de errores de sendError (429/503 del RateLimitFilter): sin esto se convierten en 401
+                        .requestMatchers("/error").permitAll()
                         // 2. Reglas del Storefront Privado (Mi Cuenta)
                         // Solo los CLIENTES pueden acceder a su perfil de tienda
                         .requestMatchers("/api/store/**").hasRole("CLIENTE")
@@ -61,17 +82,38 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // Throttling antes de autenticar: las requests rechazadas no llegan a la BD ni a BCrypt
+                .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class)
                 .build();
     }
 
+    /**
+     * El limitador solo debe correr dentro de la cadena de seguridad (después de CORS), no como filtro global
+     */
+    @Bean
+    FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authenticationConfiguration) throws Exception {
         return authenticationConfiguration.getAuthenticationManager();
     }
 
+    /**
+     * Hashes nuevos con prefijo {bcrypt} y el costo configurado. Los hashes antiguos (sin prefijo)
+     * se verifican como BCrypt y se re-hashean en el siguiente login exitoso (ver UserDetailsServiceImpl).
+     * Se limita cuántos hashes corren a la vez para que un pico de logins no consuma toda la CPU.
+     */
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new BoundedPasswordEncoder(delegating, maxConcurrentHashes, maxWaitingHashes, maxHashWait,
+                meterRegistry);
     }
 
     @Bean
@@ -1,12 +1,17 @@
 package com.pixelpro.auth.controller;
 
+import com.pixelpro.auth.config.AuthUser;
 import com.pixelpro.auth.config.JwtService;
 import com.pixelpro.auth.dto.AuthResponse;
 import com.pixelpro.auth.dto.LoginRequest;
+import com.pixelpro.auth.dto.RefreshTokenRequest;
 import com.pixelpro.auth.dto.RegisterRequest;
 import com.pixelpro.auth.entity.UserEntity;
 import com.pixelpro.auth.repository.UserRepository;
+import com.pixelpro.auth.service.RefreshTokenService;
+import com.pixelpro.auth.service.TokenRevocationService;
 import com.pixelpro.auth.service.UserService;
+import io.jsonwebtoken.Claims;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -17,7 +22,6 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.stream.Collectors;
@@ -32,6 +36,8 @@ public class AuthController {
     private final UserService userService;
     private final UserRepository userRepository;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Operation(summary = "Registrar cuenta de cliente",
             description = "Crea una nueva cuenta para el usuario final del Ecommerce. Por defecto, asigna el rol CLIENTE y genera un token JWT para el auto-login.")
@@ -39,28 +45,55 @@ public class AuthController {
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest req) {
         UserEntity u = userService.register(req.email(), req.password(), null);
 
-        Authentication auth = authManager.authenticate(
-                new UsernamePasswordAuthenticationToken(req.email(), req.password())
-        );
-
-        String token = jwtService.generateToken((UserDetails) auth.getPrincipal());
-        String rol = getCleanRole(auth);
+        // El usuario recién creado ya es el principal: no hace falta re-autenticar (ni otro BCrypt)
+        AuthUser principal = AuthUser.from(u);
+        String token = jwtService.generateToken(principal);
+        String refreshToken = refreshTokenService.issue(principal.getId());
 
-        return ResponseEntity.ok(new AuthResponse(u.getId(), u.getEmail(), rol, true, token));
+        return ResponseEntity.ok(new AuthResponse(principal.getId(), principal.getEmail(), principal.getRole(), true, token, refreshToken));
     }
 
     @PostMapping("/login")
-    @Operation(summary = "Iniciar sesión", description = "Autentica un usuario existente y genera un token JWT")
+    @Operation(summary = "Iniciar sesión", description = "Autentica un usuario existente y genera un access token JWT de corta duración y un refresh token")
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest req) {
         Authentication auth = authManager.authenticate(
                 new UsernamePasswordAuthenticationToken(req.email(), req.password())
         );
 
-        UserEntity user = userRepository.findByEmail(req.email()).orElseThrow();
-        String token = jwtService.generateToken((UserDetails) auth.getPrincipal());
-        String rol = getCleanRole(auth);
+        // El principal ya trae el ID (cargado en la misma consulta de autenticación)
+        AuthUser principal = (AuthUser) auth.getPrincipal();
+        String token = jwtService.generateToken(principal);
+        String refreshToken = refreshTokenService.issue(principal.getId());
 
-        return ResponseEntity.ok(new AuthResponse(user.getId(), user.getEmail(), rol, true, token));
+        return ResponseEntity.ok(new AuthResponse(principal.getId(), principal.getEmail(), principal.getRole(), true, token, refreshToken));
+    }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Renovar access token",
+            description = "Canjea un refresh token válido por un nuevo access token y un nuevo refresh token (el anterior queda revocado). " +
+                    "Reutilizar un refresh token ya canjeado revoca toda la sesión.")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest req) {
+        RefreshTokenService.RotatedToken rotated = refreshTokenService.rotate(req.refreshToken());
+        AuthUser principal = rotated.principal();
+        String token = jwtService.generateToken(principal);
+
+        return ResponseEntity.ok(new AuthResponse(principal.getId(), principal.getEmail(), principal.getRole(), true, token, rotated.refreshToken()));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Cerrar sesión", description = "Revoca el access token actual y, si se envía, la sesión del refresh token")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody(required = false) RefreshTokenRequest req
+    ) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            Claims claims = jwtService.parseToken(authHeader.substring(7));
+            tokenRevocationService.revokeToken(claims.getId(), claims.getExpiration());
+        }
+        if (req != null && req.refreshToken() != null) {
+            refreshTokenService.revoke(req.refreshToken());
+        }
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/me")
@@ -69,15 +102,19 @@ public class AuthController {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
 
         if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getPrincipal())) {
-            return ResponseEntity.ok(new AuthResponse(null, null, null, false, null));
+            return ResponseEntity.ok(new AuthResponse(null, null, null, false, null, null));
         }
 
         String email = auth.getName();
-        UserEntity user = userRepository.findByEmail(email).orElse(null);
         String rol = getCleanRole(auth);
-        Long id = user != null ? user.getId() : null;
 
-        return ResponseEntity.ok(new AuthResponse(id, email, rol, true, null));
+        // El ID viaja en el token: sin consulta. Solo los tokens antiguos (sin claim "uid") van a la BD.
+        Long id = (auth.getPrincipal() instanceof AuthUser principal) ? principal.getId() : null;
+        if (id == null) {
+            id = userRepository.findByEmail(email).map(UserEntity::getId).orElse(null);
+        }
+
+        return ResponseEntity.ok(new AuthResponse(id, email, rol, true, null, null));
     }
 
     private String getCleanRole(Authentication auth) {
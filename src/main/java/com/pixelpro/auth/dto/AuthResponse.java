@@ -5,6 +5,7 @@ public record AuthResponse(
         String email,
         String rol,
         boolean authenticated,
-        String token
+        String token,
+        String refreshToken
 ) {
 }
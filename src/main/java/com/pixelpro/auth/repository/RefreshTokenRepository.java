@@ -0,0 +1,41 @@
+package com.pixelpro.auth.repository;
+
+import com.pixelpro.auth.entity.RefreshTokenEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, Long> {
+
+    /**
+     * Token con su usuario, rol y perfil de cliente en una sola consulta
+     */
+    @Query("SELECT t FROM RefreshTokenEntity t " +
+            "JOIN FETCH t.user u JOIN FETCH u.role LEFT JOIN FETCH u.customer " +
+            "WHERE t.tokenHash = :tokenHash")
+    Optional<RefreshTokenEntity> findWithUserByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Revoca el token solo si seguía activo. 0 filas: otra rotación lo usó primero (reutilización);
+     * la fila queda bloqueada hasta el commit, así que dos rotaciones simultáneas no pueden ganar ambas.
+     */
+    @Modifying
+    @Query("UPDATE RefreshTokenEntity t SET t.revoked = true WHERE t.id = :id AND t.revoked = false")
+    int revokeIfActive(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE RefreshTokenEntity t SET t.revoked = true WHERE t.familyId = :familyId AND t.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("UPDATE RefreshTokenEntity t SET t.revoked = true WHERE t.user.id = :userId AND t.revoked = false")
+    int revokeAllByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshTokenEntity t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
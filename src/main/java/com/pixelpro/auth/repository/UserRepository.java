@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
@@ -15,6 +16,16 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
     boolean existsByEmail(String email);
 
+    /**
+     * Usuario con rol en una sola consulta (login). El perfil de cliente se trae en el mismo JOIN
+     * porque la relación inversa @OneToOne no es lazy: sin él, Hibernate lanzaría una segunda consulta.
+     */
+    @Query("SELECT u FROM UserEntity u JOIN FETCH u.role LEFT JOIN FETCH u.customer WHERE u.email = :email")
+    Optional<UserEntity> findWithRoleAndCustomerByEmail(@Param("email") String email);
+
+    @Query("SELECT u.email FROM UserEntity u WHERE u.enabled = false")
+    List<String> findDisabledEmails();
+
     @Query("SELECT u FROM UserEntity u WHERE " +
             "(:role IS NULL OR u.role.roleName = :role) AND " +
             "(:search IS NULL OR :search = '' OR LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
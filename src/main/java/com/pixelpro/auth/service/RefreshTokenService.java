@@ -0,0 +1,125 @@
+package com.pixelpro.auth.service;
+
+import com.pixelpro.auth.config.AuthUser;
+import com.pixelpro.auth.config.JwtService;
+import com.pixelpro.auth.entity.RefreshTokenEntity;
+import com.pixelpro.auth.entity.UserEntity;
+import com.pixelpro.auth.repository.RefreshTokenRepository;
+import com.pixelpro.auth.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Emisión y rotación de refresh tokens (opacos, de un solo uso).
+ * Cada refresh devuelve un token nuevo de la misma familia y revoca el anterior.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+
+    @Value("${jwt.refresh-expiration}")
+    private long refreshExpirationTime;
+
+    /**
+     * Resultado de una rotación: principal actualizado desde la BD y nuevo refresh token
+     */
+    public record RotatedToken(AuthUser principal, String refreshToken) {}
+
+    /**
+     * Emite el primer refresh token de una sesión (login / registro)
+     */
+    @Transactional
+    public String issue(Long userId) {
+        // Referencia sin consulta: solo se necesita la FK
+        return create(userRepository.getReferenceById(userId), UUID.randomUUID().toString());
+    }
+
+    /**
+     * Valida y rota un refresh token. Si el token ya había sido usado (posible robo),
+     * revoca toda la familia para cortar también al atacante.
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public RotatedToken rotate(String rawToken) {
+        RefreshTokenEntity current = refreshTokenRepository.findWithUserByTokenHash(JwtService.sha256Hex(rawToken))
+                .orElseThrow(() -> new BadCredentialsException("Refresh token inválido"));
+
+        if (current.isRevoked()) {
+            throw reused(current);
+        }
+        if (current.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new BadCredentialsException("Refresh token expirado");
+        }
+
+        UserEntity user = current.getUser();
+        if (!user.isEnabled()) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            throw new BadCredentialsException("Usuario deshabilitado");
+        }
+
+        // Revocación condicional: si una rotación concurrente del mismo token ya lo revocó, es reutilización
+        if (refreshTokenRepository.revokeIfActive(current.getId()) == 0) {
+            throw reused(current);
+        }
+        String next = create(user, current.getFamilyId());
+        return new RotatedToken(AuthUser.from(user), next);
+    }
+
+    /**
+     * Cierra la sesión asociada al refresh token (toda su familia)
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findWithUserByTokenHash(JwtService.sha256Hex(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeAllByUserId(userId);
+    }
+
+    @Scheduled(cron = "${app.security.refresh-token.cleanup-cron:0 30 3 * * *}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        log.info("Refresh tokens expirados eliminados: {}", deleted);
+    }
+
+    // Reutilización de un token ya rotado (posible robo): se corta toda la familia
+    private BadCredentialsException reused(RefreshTokenEntity token) {
+        int revoked = refreshTokenRepository.revokeFamily(token.getFamilyId());
+        log.warn("Reutilización de refresh token del usuario {}: {} tokens de la familia revocados",
+                token.getUser().getEmail(), revoked);
+        return new BadCredentialsException("Refresh token revocado");
+    }
+
+    private String create(UserEntity user, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshTokenEntity.builder()
+                .user(user)
+                .tokenHash(JwtService.sha256Hex(rawToken))
+                .familyId(familyId)
+                .expiresAt(LocalDateTime.now().plusNanos(refreshExpirationTime * 1_000_000))
+                .build());
+        return rawToken;
+    }
+}
@@ -0,0 +1,99 @@
+package com.pixelpro.auth.service;
+
+import com.pixelpro.auth.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria de revocaciones consultado en cada request autenticado:
+ * - usuarios cuyos tokens emitidos hasta cierto instante ya no son válidos (deshabilitado, cambio de rol o email)
+ * - tokens puntuales revocados por logout (por jti)
+ * Como los access tokens son de vida corta, ambos mapas se mantienen pequeños: las entradas se descartan
+ * cuando ya no puede existir un token vigente al que apliquen.
+ * <p>
+ * El índice vive en memoria y es de cada instancia: con varias réplicas, una revocación registrada en una
+ * no se ve en las demás, y un reinicio la pierde (salvo los usuarios deshabilitados, que se recargan de la BD).
+ * En esos casos el access token sigue siendo válido hasta que expira (jwt.expiration); los refresh tokens
+ * sí se revocan en la BD (RefreshTokenService), así que la sesión no puede renovarse.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    private final UserRepository userRepository;
+
+    @Value("${jwt.expiration}")
+    private long expirationTime;
+
+    // email -> instante de revocación
+    private final Map<String, Instant> revokedUsers = new ConcurrentHashMap<>();
+
+    // jti -> expiración del token revocado (logout). Solo vive hasta que el token expira por sí solo.
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+
+    /**
+     * Invalida todos los tokens del usuario emitidos hasta ahora
+     */
+    public void revokeUser(String email) {
+        revokedUsers.put(email, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+        log.info("Tokens revocados para el usuario {}", email);
+    }
+
+    /**
+     * Revoca un token puntual (logout) hasta su expiración
+     */
+    public void revokeToken(String tokenId, Date expiresAt) {
+        if (tokenId != null && expiresAt != null) {
+            revokedTokens.put(tokenId, expiresAt.toInstant());
+        }
+    }
+
+    public boolean isTokenRevoked(String tokenId) {
+        return tokenId != null && revokedTokens.containsKey(tokenId);
+    }
+
+    /**
+     * Un token está revocado si fue emitido en o antes del instante de revocación del usuario.
+     * iat tiene precisión de segundos: ambos instantes se comparan truncados a segundos, de modo que un
+     * token emitido en el mismo segundo de la revocación (antes o después, no se puede distinguir) se rechaza.
+     */
+    public boolean isRevoked(String email, Date issuedAt) {
+        Instant revokedAt = revokedUsers.get(email);
+        if (revokedAt == null) {
+            return false;
+        }
+        return issuedAt == null
+                || !issuedAt.toInstant().truncatedTo(ChronoUnit.SECONDS).isAfter(revokedAt.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Al arrancar, los usuarios ya deshabilitados se consideran revocados:
+     * pueden conservar tokens emitidos antes del reinicio.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDisabledUsers() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        userRepository.findDisabledEmails().forEach(email -> revokedUsers.put(email, now));
+        log.info("Revocación de tokens inicializada con {} usuarios deshabilitados", revokedUsers.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.cleanup-interval:600000}")
+    public void purgeExpired() {
+        Instant limit = Instant.now().minusMillis(expirationTime);
+        revokedUsers.values().removeIf(revokedAt -> revokedAt.isBefore(limit));
+        Instant now = Instant.now();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+    }
+}
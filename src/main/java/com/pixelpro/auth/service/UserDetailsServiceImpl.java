@@ -1,17 +1,18 @@
 package com.pixelpro.auth.service;
 
+import com.pixelpro.auth.config.AuthUser;
 import com.pixelpro.auth.entity.UserEntity;
 import com.pixelpro.auth.repository.UserRepository;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -22,16 +23,30 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Override
     @Transactional // ¡Importante para evitar LazyInitializationException!
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        UserEntity u = userRepository.findByEmail(username)
+        // Una sola consulta: usuario + rol (y el perfil de cliente, que Hibernate cargaría aparte)
+        UserEntity u = userRepository.findWithRoleAndCustomerByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado"));
 
-        return User.builder()
-                .username(u.getEmail())
-                .password(u.getPasswordHash())
-                // 1. Aquí añadimos el prefijo "ROLE_"
-                .authorities(new SimpleGrantedAuthority("ROLE_" + u.getRole().getRoleName().name()))
-                // 2. Aquí comprobamos si la cuenta está deshabilitada
-                .disabled(!u.isEnabled())
+        // El principal lleva el rol (con prefijo "ROLE_" en sus authorities) y si la cuenta está deshabilitada
+        return AuthUser.from(u);
+    }
+
+    /**
+     * Llamado por Spring Security tras un login exitoso cuando el hash usa un formato o costo antiguo:
+     * guarda el hash actualizado de forma transparente para el usuario.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.findByEmail(user.getUsername()).ifPresent(u -> {
+            u.setPasswordHash(newPassword);
+            userRepository.save(u);
+        });
+        if (user instanceof AuthUser authUser) {
+            return authUser.withPassword(newPassword);
+        }
+        return User.withUserDetails(user)
+                .password(newPassword)
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -28,6 +28,8 @@ public class UserService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
 
     @Transactional
     public UserEntity register(String email, String rawPassword, RoleEnum roleEnum) {
@@ -90,6 +92,15 @@ public class UserService {
         RoleEntity role = roleRepository.findByRoleName(dto.role())
                 .orElseThrow(() -> new ResourceNotFoundException("Rol no encontrado: " + dto.role()));
 
+        // Los tokens emitidos llevan el email y el rol anteriores: se revocan si cambian o si se deshabilita
+        if (!user.getEmail().equals(dto.email()) || user.getRole().getRoleName() != dto.role()
+                || (user.isEnabled() && !dto.enabled())) {
+            tokenRevocationService.revokeUser(user.getEmail());
+        }
+        if (user.isEnabled() && !dto.enabled()) {
+            refreshTokenService.revokeAllForUser(user.getId());
+        }
+
         // Actualizar campos
         user.setEmail(dto.email());
         user.setRole(role);
@@ -115,6 +126,13 @@ public class UserService {
 
         user.setEnabled(!user.isEnabled());
         UserEntity updated = userRepository.save(user);
+
+        // Sin consulta por request, la deshabilitación se aplica revocando los tokens emitidos:
+        // el access token deja de valer en el siguiente request y el refresh token ya no se puede rotar
+        if (!updated.isEnabled()) {
+            tokenRevocationService.revokeUser(updated.getEmail());
+            refreshTokenService.revokeAllForUser(updated.getId());
+        }
         return userMapper.toDto(updated);
     }
 
@@ -0,0 +1,35 @@
+package com.pixelpro.billing.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Pool acotado que procesa las notificaciones de pago encoladas.
+ * El tamaño limita cuántas llamadas simultáneas hacemos a la API de Mercado Pago
+ * y cuántas conexiones de BD ocupa el procesamiento de webhooks.
+ */
+@Configuration
+@EnableScheduling
+public class WebhookQueueConfig {
+
+    public static final String WEBHOOK_EXECUTOR = "webhookExecutor";
+
+    @Value("${app.webhook.worker.threads:4}")
+    private int threads;
+
+    @Bean(name = WEBHOOK_EXECUTOR)
+    public ThreadPoolTaskExecutor webhookExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        // Sin cola interna: el worker solo toma de BD lo que puede ejecutar (la cola real es la tabla)
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("webhook-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,58 @@
+package com.pixelpro.billing.entity;
+
+import com.pixelpro.billing.entity.enums.WebhookEventStatus;
+import com.pixelpro.common.entity.AuditableEntity;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notificación de pago recibida por webhook y pendiente de procesar (tabla outbox).
+ * Un registro por ID de pago de Mercado Pago: las notificaciones repetidas se deduplican.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "webhook_events",
+        // Reclamo de la cola: WHERE status IN (...) AND next_attempt_at <= ? ORDER BY next_attempt_at
+        indexes = @Index(name = "idx_webhook_events_status_next_attempt", columnList = "status, next_attempt_at"))
+public class WebhookEventEntity extends AuditableEntity {
+    @Id
+    // Sigue con IDENTITY: las filas se insertan con el upsert nativo de WebhookEventRepository
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // ID del pago en Mercado Pago
+    @NotBlank
+    @Size(max = 50)
+    @Column(name = "payment_id", nullable = false, length = 50, unique = true)
+    private String paymentId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WebhookEventStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // Momento a partir del cual el evento puede tomarse (reintentos con backoff o lease del worker)
+    @NotNull
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Llegó otra notificación mientras se procesaba: al terminar, el evento vuelve a la cola
+    @Column(nullable = false)
+    private boolean requeue;
+
+    @Size(max = 500)
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
@@ -6,5 +6,6 @@ public enum PaymentStatus {
     CONFIRMADO,       // cobro confirmado/capturado
     RECHAZADO,         // rechazado o error
     CANCELADO,       // cancelado antes de capturar
-    REEMBOLSADO        // reembolsado total/parcial
+    REEMBOLSADO,        // reembolsado total/parcial
+    REEMBOLSO_PENDIENTE // cobrado para una orden que ya no puede confirmarse: hay que devolverlo
 }
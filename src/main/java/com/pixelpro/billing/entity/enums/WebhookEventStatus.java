@@ -0,0 +1,8 @@
+package com.pixelpro.billing.entity.enums;
+
+public enum WebhookEventStatus {
+    PENDIENTE,        // en cola, esperando ser procesado (o reintento programado)
+    PROCESANDO,       // tomado por un worker
+    PROCESADO,        // procesado correctamente
+    FALLIDO           // se agotaron los reintentos
+}
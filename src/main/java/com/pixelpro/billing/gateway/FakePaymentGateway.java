@@ -0,0 +1,75 @@
+package com.pixelpro.billing.gateway;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mercadopago.client.preference.PreferenceItemRequest;
+import com.pixelpro.common.simulation.GatewaySimulator;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mercado Pago simulado en memoria para pruebas de carga (perfil loadtest).
+ * Cada preferencia registra un pago aprobado; el ID de preferencia lleva el ID de ese pago
+ * ({@value #PREFERENCE_PREFIX}&lt;paymentId&gt;) para que el cliente de carga pueda emitir el webhook,
+ * como lo haría el navegador al volver de Mercado Pago con payment_id.
+ */
+@Component
+@Profile("loadtest")
+@Slf4j
+public class FakePaymentGateway implements PaymentGateway {
+
+    public static final String PREFERENCE_PREFIX = "LT-PREF-";
+
+    private final GatewaySimulator simulator;
+    private final AtomicLong paymentIds = new AtomicLong(System.currentTimeMillis());
+    private final Cache<String, GatewayPayment> payments;
+
+    public FakePaymentGateway(
+            @Value("${app.fake-gateways.mercadopago.latency:150ms}") Duration latency,
+            @Value("${app.fake-gateways.mercadopago.jitter:100ms}") Duration jitter,
+            @Value("${app.fake-gateways.mercadopago.error-rate:0.0}") double errorRate,
+            @Value("${app.fake-gateways.mercadopago.payment-ttl:1h}") Duration paymentTtl
+    ) {
+        this.simulator = new GatewaySimulator(latency, jitter, errorRate);
+        this.payments = Caffeine.newBuilder()
+                .expireAfterWrite(paymentTtl)
+                .build();
+        log.warn("Pasarela de pagos SIMULADA activa (latencia {} + hasta {}, tasa de error {})", latency, jitter, errorRate);
+    }
+
+    @Override
+    @Timed(value = "pixelpro.mercadopago.preference", description = "Creación de preferencias en Mercado Pago", histogram = true)
+    public String createPreference(List<PreferenceItemRequest> items, String externalReference) {
+        if (!simulator.call()) {
+            throw new PaymentGatewayException("Error simulado de Mercado Pago al crear la preferencia");
+        }
+
+        BigDecimal amount = items.stream()
+                .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        String paymentId = String.valueOf(paymentIds.incrementAndGet());
+        payments.put(paymentId, new GatewayPayment(paymentId, "approved", externalReference, amount, LocalDateTime.now()));
+
+        return PREFERENCE_PREFIX + paymentId;
+    }
+
+    @Override
+    @Timed(value = "pixelpro.mercadopago.payment", description = "Consulta de pagos en Mercado Pago", histogram = true)
+    public Optional<GatewayPayment> findPayment(String paymentId) {
+        if (!simulator.call()) {
+            throw new PaymentGatewayException("Error simulado de Mercado Pago al consultar el pago " + paymentId);
+        }
+        return Optional.ofNullable(payments.getIfPresent(paymentId));
+    }
+}
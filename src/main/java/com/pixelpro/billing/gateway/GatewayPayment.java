@@ -0,0 +1,23 @@
+package com.pixelpro.billing.gateway;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Datos de un pago consultado a la pasarela, independientes del SDK
+ *
+ * @param status            Estado según la pasarela ("approved", "pending", "rejected", ...)
+ * @param externalReference ID de nuestra orden enviado al crear la preferencia
+ * @param dateApproved      Fecha de aprobación (null si no está aprobado)
+ */
+public record GatewayPayment(
+        String id,
+        String status,
+        String externalReference,
+        BigDecimal transactionAmount,
+        LocalDateTime dateApproved
+) {
+    public boolean isApproved() {
+        return "approved".equals(status);
+    }
+}
@@ -0,0 +1,28 @@
+package com.pixelpro.billing.gateway;
+
+import com.mercadopago.client.preference.PreferenceItemRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Pasarela de pagos usada por el checkout y el procesamiento de webhooks.
+ * Implementaciones: MpPaymentService (Mercado Pago real) y FakePaymentGateway (perfil loadtest).
+ */
+public interface PaymentGateway {
+
+    /**
+     * Crea la preferencia de pago y retorna su ID.
+     *
+     * @throws PaymentGatewayException si la pasarela no responde o rechaza la solicitud
+     */
+    String createPreference(List<PreferenceItemRequest> items, String externalReference);
+
+    /**
+     * Consulta el estado real de un pago. Vacío si la pasarela no conoce el pago.
+     *
+     * @throws PaymentGatewayException si la pasarela falla; el webhook se reintenta solo si
+     *                                  {@link PaymentGatewayException#isRetryable()}
+     */
+    Optional<GatewayPayment> findPayment(String paymentId);
+}
@@ -0,0 +1,24 @@
+package com.pixelpro.billing.gateway;
+
+public class PaymentGatewayException extends RuntimeException {
+
+    // Error transitorio (429, 5xx, conexión): tiene sentido reintentar la llamada
+    private final boolean retryable;
+
+    public PaymentGatewayException(String msg) {
+        this(msg, null, true);
+    }
+
+    public PaymentGatewayException(String msg, Throwable cause) {
+        this(msg, cause, true);
+    }
+
+    public PaymentGatewayException(String msg, Throwable cause, boolean retryable) {
+        super(msg, cause);
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
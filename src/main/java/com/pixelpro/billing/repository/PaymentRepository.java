@@ -4,4 +4,9 @@ import com.pixelpro.billing.entity.PaymentEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface PaymentRepository extends JpaRepository<PaymentEntity, Long> {
+
+    /**
+     * Indica si el pago de la pasarela ya se registró en la orden (idempotencia de los webhooks)
+     */
+    boolean existsByOrder_IdAndTransactionId(Long orderId, String transactionId);
 }
@@ -0,0 +1,87 @@
+package com.pixelpro.billing.repository;
+
+import com.pixelpro.billing.entity.WebhookEventEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface WebhookEventRepository extends JpaRepository<WebhookEventEntity, Long> {
+
+    /**
+     * Encola una notificación de forma idempotente.
+     * Si el pago ya está PENDIENTE no hace nada; si ya había terminado (PROCESADO o FALLIDO) lo vuelve
+     * a encolar, porque MP notifica cada cambio de estado del pago. Si está PROCESANDO, el worker pudo
+     * haber consultado el pago antes del cambio: se marca requeue y markProcessed lo devuelve a la cola.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO webhook_events (payment_id, status, attempts, next_attempt_at, requeue, created_at, updated_at)
+            VALUES (:paymentId, 'PENDIENTE', 0, :now, false, :now, :now)
+            ON CONFLICT (payment_id) DO UPDATE
+                SET status          = CASE WHEN webhook_events.status = 'PROCESANDO' THEN webhook_events.status ELSE 'PENDIENTE' END,
+                    attempts        = CASE WHEN webhook_events.status = 'PROCESANDO' THEN webhook_events.attempts ELSE 0 END,
+                    next_attempt_at = CASE WHEN webhook_events.status = 'PROCESANDO' THEN webhook_events.next_attempt_at ELSE :now END,
+                    last_error      = CASE WHEN webhook_events.status = 'PROCESANDO' THEN webhook_events.last_error END,
+                    requeue         = webhook_events.status = 'PROCESANDO',
+                    updated_at      = :now
+                WHERE webhook_events.status <> 'PENDIENTE'
+            """, nativeQuery = true)
+    void enqueue(@Param("paymentId") String paymentId, @Param("now") LocalDateTime now);
+
+    /**
+     * Bloquea los próximos eventos listos para procesar. SKIP LOCKED permite que varias
+     * instancias de la aplicación consuman la cola sin tomar el mismo evento.
+     * Incluye eventos PROCESANDO cuyo lease venció (worker caído a mitad de proceso).
+     */
+    @Query(value = """
+            SELECT * FROM webhook_events
+            WHERE status IN ('PENDIENTE', 'PROCESANDO') AND next_attempt_at <= :now
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<WebhookEventEntity> lockNextBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Marca el evento como procesado, solo si sigue tomado por el worker.
+     * Si llegó otra notificación mientras se procesaba (requeue), vuelve a PENDIENTE para consultarlo de nuevo.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE webhook_events
+            SET status          = CASE WHEN requeue THEN 'PENDIENTE' ELSE 'PROCESADO' END,
+                attempts        = CASE WHEN requeue THEN 0 ELSE attempts END,
+                next_attempt_at = CASE WHEN requeue THEN :now ELSE next_attempt_at END,
+                requeue         = false,
+                last_error      = NULL,
+                updated_at      = :now
+            WHERE id = :id AND status = 'PROCESANDO'
+            """, nativeQuery = true)
+    int markProcessed(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Registra un intento fallido: programa el reintento (PENDIENTE) o lo da por perdido (FALLIDO).
+     * Si llegó otra notificación mientras se procesaba (requeue), se encola de nuevo como lo haría enqueue.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE webhook_events
+            SET status          = CASE WHEN requeue THEN 'PENDIENTE' ELSE :status END,
+                attempts        = CASE WHEN requeue THEN 0 ELSE :attempts END,
+                next_attempt_at = CASE WHEN requeue THEN :now ELSE CAST(:nextAttemptAt AS timestamp) END,
+                requeue         = false,
+                last_error      = :error,
+                updated_at      = :now
+            WHERE id = :id AND status = 'PROCESANDO'
+            """, nativeQuery = true)
+    int markFailed(@Param("id") Long id,
+                   @Param("status") String status,
+                   @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("error") String error,
+                   @Param("now") LocalDateTime now);
+}
@@ -1,19 +1,31 @@
 package com.pixelpro.billing.service;
 
+import com.mercadopago.client.payment.PaymentClient;
 import com.mercadopago.client.preference.PreferenceBackUrlsRequest;
 import com.mercadopago.client.preference.PreferenceClient;
 import com.mercadopago.client.preference.PreferenceItemRequest;
 import com.mercadopago.client.preference.PreferenceRequest;
 import com.mercadopago.exceptions.MPApiException;
 import com.mercadopago.exceptions.MPException;
+import com.mercadopago.resources.payment.Payment;
 import com.mercadopago.resources.preference.Preference;
+import com.pixelpro.billing.gateway.GatewayPayment;
+import com.pixelpro.billing.gateway.PaymentGateway;
+import com.pixelpro.billing.gateway.PaymentGatewayException;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Pasarela real de Mercado Pago (SDK). En el perfil loadtest la reemplaza FakePaymentGateway.
+ */
 @Service
-public class MpPaymentService {
+@Profile("!loadtest")
+public class MpPaymentService implements PaymentGateway {
 
     // Inyectamos la URL base desde application.properties (o variable de entorno)
     // En DEV será tu Ngrok, en PROD será tu dominio real.
@@ -21,6 +33,8 @@ public class MpPaymentService {
     private String notificationBaseUrl;
 
     // Method principal que llamará tu controlador y creará la preferencia
+    @Override
+    @Timed(value = "pixelpro.mercadopago.preference", description = "Creación de preferencias en Mercado Pago", histogram = true)
     public String createPreference(List<PreferenceItemRequest> items, String externalReference) {
         try {
 //            // 1. Preferencia de Venta (¿Qué estás vendiendo?)
@@ -64,12 +78,41 @@ public class MpPaymentService {
         } catch (MPApiException apiException) {
             System.err.println("Status Code: " + apiException.getStatusCode());
             System.err.println("Response: " + apiException.getApiResponse().getContent());
-            throw new RuntimeException("Error API MP: " + apiException.getApiResponse().getContent());
+            throw new PaymentGatewayException("Error API MP: " + apiException.getApiResponse().getContent(), apiException);
         } catch (MPException mpException) {
             System.err.println("Error general de Mercado Pago (Posiblemente conexión):");
-            throw new RuntimeException("Error MP General " + mpException.getMessage());
+            throw new PaymentGatewayException("Error MP General " + mpException.getMessage(), mpException);
         } catch (Exception e) {
-            throw new RuntimeException("Error desconocido");
+            throw new PaymentGatewayException("Error desconocido", e);
+        }
+    }
+
+    @Override
+    @Timed(value = "pixelpro.mercadopago.payment", description = "Consulta de pagos en Mercado Pago", histogram = true)
+    public Optional<GatewayPayment> findPayment(String paymentId) {
+        try {
+            Payment payment = new PaymentClient().get(Long.parseLong(paymentId));
+
+            return Optional.of(new GatewayPayment(
+                    payment.getId().toString(),
+                    payment.getStatus(),
+                    payment.getExternalReference(),
+                    payment.getTransactionAmount(),
+                    payment.getDateApproved() != null ? payment.getDateApproved().toLocalDateTime() : null
+            ));
+
+        } catch (MPApiException apiException) {
+            if (apiException.getStatusCode() == 404) {
+                return Optional.empty();
+            }
+            // Solo 429 y 5xx son transitorios; 400/401/403 (credenciales, ID inválido) fallarían igual al reintentar
+            int statusCode = apiException.getStatusCode();
+            boolean retryable = statusCode == 429 || statusCode >= 500;
+            throw new PaymentGatewayException("Error de API Mercado Pago al consultar pago " + paymentId
+                    + " (HTTP " + statusCode + "): " + apiException.getMessage(), apiException, retryable);
+        } catch (MPException mpException) {
+            // Error de conexión/SDK: también transitorio
+            throw new PaymentGatewayException("Error de conexión/SDK Mercado Pago: " + mpException.getMessage(), mpException);
         }
     }
 }
\ No newline at end of file
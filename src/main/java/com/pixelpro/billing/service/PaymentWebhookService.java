@@ -1,123 +1,61 @@
 package com.pixelpro.billing.service;
 
-import com.mercadopago.client.payment.PaymentClient;
-import com.mercadopago.exceptions.MPApiException;
-import com.mercadopago.exceptions.MPException;
-import com.mercadopago.resources.payment.Payment;
-import com.pixelpro.billing.entity.InvoiceEntity;
-import com.pixelpro.billing.entity.PaymentEntity;
-import com.pixelpro.billing.entity.enums.*;
-import com.pixelpro.billing.repository.InvoiceRepository;
-import com.pixelpro.billing.repository.PaymentRepository;
-import com.pixelpro.orders.entity.OrderEntity;
-import com.pixelpro.orders.entity.enums.OrderStatus;
-import com.pixelpro.orders.repository.OrderRepository;
+import com.pixelpro.billing.gateway.GatewayPayment;
+import com.pixelpro.billing.gateway.PaymentGateway;
+import com.pixelpro.billing.gateway.PaymentGatewayException;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.TransactionException;
 
-import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PaymentWebhookService {
 
-    private final OrderRepository orderRepository;
-    private final PaymentRepository paymentRepository;
-    private final InvoiceRepository invoiceRepository;
+    private final PaymentWebhookTransactionService paymentWebhookTransactionService;
+    private final PaymentGateway paymentGateway;
 
-    @Transactional
+    /**
+     * Consulta el pago en MP y actualiza la orden. Lo invoca WebhookWorker desde la cola;
+     * lanza excepción ante errores de Mercado Pago o de la BD para que el worker los reintente.
+     * No es transaccional: la consulta a MP no retiene una conexión del pool; la actualización
+     * de la orden va en su propia transacción corta (PaymentWebhookTransactionService).
+     */
+    @Timed(value = "pixelpro.webhook.process", description = "Procesamiento de notificaciones de pago", histogram = true)
     public void processPaymentNotification(String paymentId) {
         try {
-            // 1. Consultar a Mercado Pago el estado real del pago
-            PaymentClient client = new PaymentClient();
-            Payment payment = client.get(Long.parseLong(paymentId));
+            // 1. Consultar a la pasarela el estado real del pago
+            Optional<GatewayPayment> found = paymentGateway.findPayment(paymentId);
+            if (found.isEmpty()) {
+                log.warn("Webhook recibido con ID de pago no encontrado en MP: {} (Probablemente una notificación de prueba)", paymentId);
+                return;
+            }
+            GatewayPayment payment = found.get();
 
-            log.info("Procesando pago MP ID: {} | Status: {}", paymentId, payment.getStatus());
+            log.info("Procesando pago MP ID: {} | Status: {}", paymentId, payment.status());
 
             // 2. Verificar si está aprobado
-            if ("approved".equals(payment.getStatus())) {
-                handleApprovedPayment(payment);
+            if (payment.isApproved()) {
+                paymentWebhookTransactionService.applyApprovedPayment(payment);
             } else {
-                log.warn("Pago no aprobado o pendiente. Status: {}", payment.getStatus());
+                log.warn("Pago no aprobado o pendiente. Status: {}", payment.status());
             }
 
-        } catch (MPApiException apiException) {
-            // MANEJO ROBUSTO DE ERRORES
-            if (apiException.getStatusCode() == 404) {
-                log.warn("Webhook recibido con ID de pago no encontrado en MP: {} (Probablemente una notificación de prueba)", paymentId);
-            } else {
-                log.error("Error de API Mercado Pago al consultar pago {}: {}", paymentId, apiException.getMessage());
-            }
-        } catch (MPException mpException) {
-            log.error("Error de conexión/SDK Mercado Pago: {}", mpException.getMessage());
+        } catch (PaymentGatewayException gatewayException) {
+            // Se relanza: el worker reintenta con backoff los transitorios (429 / 5xx / conexión) y descarta el resto
+            throw gatewayException;
+        } catch (DataAccessException | TransactionException databaseException) {
+            // Se relanza: sin conexión libre, timeout de bloqueo sobre la orden, fallo de serialización...
+            // marcarlo procesado perdería un pago aprobado y la orden quedaría PENDIENTE
+            throw databaseException;
         } catch (Exception e) {
             log.error("Error procesando webhook de MP", e);
-            // No lanzamos excepción para que MP no siga reintentando infinitamente si es un error lógico nuestro
+            // No relanzamos para no reintentar infinitamente si es un error lógico nuestro
         }
     }
-
-    private void handleApprovedPayment(Payment mpPayment) {
-        // 1. Obtener nuestra Order ID desde external_reference
-        String externalRef = mpPayment.getExternalReference();
-
-        // Validación extra por si es una prueba manual sin referencia
-        if (externalRef == null || externalRef.isEmpty()) {
-            log.warn("Pago aprobado sin external_reference (Order ID). No se puede vincular. ID Pago: {}", mpPayment.getId());
-            return;
-        }
-
-        long orderId;
-        try {
-            orderId = Long.parseLong(externalRef);
-        } catch (NumberFormatException e) {
-            log.error("External reference inválido (no es un ID numérico): {}", externalRef);
-            return;
-        }
-
-        OrderEntity order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order no encontrado " + orderId));
-
-        // 2. Idempotencia: Si ya está confirmada, no hacer nada
-        if (order.getStatus() == OrderStatus.CONFIRMADO || order.getStatus() == OrderStatus.PREPARANDO) {
-            log.info("La orden {} ya estaba confirmada. Ignorando evento.", order.getCode());
-            return;
-        }
-
-        // 3. Crear entidad Payment real
-        PaymentEntity paymentEntity = PaymentEntity.builder()
-                .amount(mpPayment.getTransactionAmount())
-                .currency(CurrencyCode.PEN) // O mapear desde mpPayment.getCurrencyId()
-                .method(PaymentMethod.TARJETA) // Simplificado, o mapear mpPayment.getPaymentMethodId()
-                .status(PaymentStatus.CONFIRMADO)
-                .transactionId(mpPayment.getId().toString())
-                .paidAt(mpPayment.getDateApproved() != null ? mpPayment.getDateApproved().toLocalDateTime() : LocalDateTime.now())
-                .order(order)
-                .build();
-        paymentRepository.save(paymentEntity);
-
-        // 4. Crear factura electrónica (simulada, pero vinculada a la orden)
-        InvoiceEntity invoice = InvoiceEntity.builder()
-                .type(InvoiceType.BOLETA)
-                .serie("F001")
-                .number(String.format("%08d", order.getId()))
-                .issuedAt(LocalDateTime.now())
-                .totalAmount(order.getTotal())
-                .currency(CurrencyCode.PEN)
-                .status(InvoiceStatus.EMITIDO)
-                .hashValue(UUID.randomUUID().toString())
-                .documentUrl("https://pixelpro.com/invoices/" + order.getCode() + ".pdf")
-                .order(order)
-                .build();
-        invoiceRepository.save(invoice);
-
-        // 5. Actualizar Orden
-        order.setStatus(OrderStatus.CONFIRMADO);
-        log.info("Pago APROBADO. Actualizando orden {} a CONFIRMADO.", order.getCode());
-
-        orderRepository.save(order);
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,116 @@
+package com.pixelpro.billing.service;
+
+import com.pixelpro.billing.entity.InvoiceEntity;
+import com.pixelpro.billing.entity.PaymentEntity;
+import com.pixelpro.billing.entity.enums.*;
+import com.pixelpro.billing.gateway.GatewayPayment;
+import com.pixelpro.billing.repository.InvoiceRepository;
+import com.pixelpro.billing.repository.PaymentRepository;
+import com.pixelpro.orders.entity.OrderEntity;
+import com.pixelpro.orders.entity.enums.OrderStatus;
+import com.pixelpro.orders.event.OrderStatusChangedEvent;
+import com.pixelpro.orders.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Parte transaccional del procesamiento de webhooks. Se separa de PaymentWebhookService para que
+ * la consulta a Mercado Pago ocurra fuera de la transacción: una respuesta lenta de la pasarela no
+ * retiene una conexión del pool ni el bloqueo de la orden.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentWebhookTransactionService {
+
+    private final OrderRepository orderRepository;
+    private final PaymentRepository paymentRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Registra un pago aprobado por MP y confirma su orden si sigue PENDIENTE. No realiza llamadas externas.
+     */
+    @Transactional
+    public void applyApprovedPayment(GatewayPayment mpPayment) {
+        // 1. Obtener nuestra Order ID desde external_reference
+        String externalRef = mpPayment.externalReference();
+
+        // Validación extra por si es una prueba manual sin referencia
+        if (externalRef == null || externalRef.isEmpty()) {
+            log.warn("Pago aprobado sin external_reference (Order ID). No se puede vincular. ID Pago: {}", mpPayment.id());
+            return;
+        }
+
+        long orderId;
+        try {
+            orderId = Long.parseLong(externalRef);
+        } catch (NumberFormatException e) {
+            log.error("External reference inválido (no es un ID numérico): {}", externalRef);
+            return;
+        }
+
+        // Bloquea la orden: la compensación del checkout (cancelCheckout) no puede cancelarla a la vez
+        OrderEntity order = orderRepository.findByIdForUpdate(orderId)
+                .orElseThrow(() -> new RuntimeException("Order no encontrado " + orderId));
+
+        // 2. Idempotencia: este pago ya se registró (webhook repetido)
+        if (paymentRepository.existsByOrder_IdAndTransactionId(order.getId(), mpPayment.id())) {
+            log.info("El pago {} de la orden {} ya estaba registrado. Ignorando evento.", mpPayment.id(), order.getCode());
+            return;
+        }
+
+        // 3. Solo una orden PENDIENTE se confirma con el pago. Si se canceló (el stock ya se liberó) o
+        // ya avanzó con otro pago, no se toca su estado: el pago queda registrado para reembolso
+        if (order.getStatus() != OrderStatus.PENDIENTE) {
+            paymentRepository.save(buildPayment(mpPayment, order, PaymentStatus.REEMBOLSO_PENDIENTE));
+            log.warn("Pago {} aprobado para la orden {} en estado {}: la orden no se confirma y el pago queda pendiente de reembolso",
+                    mpPayment.id(), order.getCode(), order.getStatus());
+            return;
+        }
+
+        // 4. Registrar el pago confirmado
+        paymentRepository.save(buildPayment(mpPayment, order, PaymentStatus.CONFIRMADO));
+
+        // 5. Crear factura electrónica (simulada, pero vinculada a la orden)
+        InvoiceEntity invoice = InvoiceEntity.builder()
+                .type(InvoiceType.BOLETA)
+                .serie("F001")
+                .number(String.format("%08d", order.getId()))
+                .issuedAt(LocalDateTime.now())
+                .totalAmount(order.getTotal())
+                .currency(CurrencyCode.PEN)
+                .status(InvoiceStatus.EMITIDO)
+                .hashValue(UUID.randomUUID().toString())
+                .documentUrl("https://pixelpro.com/invoices/" + order.getCode() + ".pdf")
+                .order(order)
+                .build();
+        invoiceRepository.save(invoice);
+
+        // 6. Actualizar Orden
+        OrderStatus previousStatus = order.getStatus();
+        order.setStatus(OrderStatus.CONFIRMADO);
+        log.info("Pago APROBADO. Actualizando orden {} a CONFIRMADO.", order.getCode());
+
+        orderRepository.save(order);
+        eventPublisher.publishEvent(OrderStatusChangedEvent.changed(order.getId(), previousStatus, OrderStatus.CONFIRMADO));
+    }
+
+    private PaymentEntity buildPayment(GatewayPayment mpPayment, OrderEntity order, PaymentStatus status) {
+        return PaymentEntity.builder()
+                .amount(mpPayment.transactionAmount())
+                .currency(CurrencyCode.PEN) // O mapear desde mpPayment.getCurrencyId()
+                .method(PaymentMethod.TARJETA) // Simplificado, o mapear mpPayment.getPaymentMethodId()
+                .status(status)
+                .transactionId(mpPayment.id())
+                .paidAt(mpPayment.dateApproved() != null ? mpPayment.dateApproved() : LocalDateTime.now())
+                .order(order)
+                .build();
+    }
+}
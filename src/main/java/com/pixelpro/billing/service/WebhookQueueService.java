@@ -0,0 +1,121 @@
+package com.pixelpro.billing.service;
+
+import com.pixelpro.billing.entity.WebhookEventEntity;
+import com.pixelpro.billing.entity.enums.WebhookEventStatus;
+import com.pixelpro.billing.gateway.PaymentGatewayException;
+import com.pixelpro.billing.repository.WebhookEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Cola persistente (outbox) de notificaciones de pago.
+ * El webhook solo encola; WebhookWorker toma los eventos y los procesa en segundo plano,
+ * con reintentos y backoff exponencial si Mercado Pago falla.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookQueueService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final WebhookEventRepository webhookEventRepository;
+
+    @Value("${app.webhook.worker.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.webhook.worker.lease:2m}")
+    private Duration lease;
+
+    @Value("${app.webhook.worker.backoff-base:5s}")
+    private Duration backoffBase;
+
+    @Value("${app.webhook.worker.backoff-max:10m}")
+    private Duration backoffMax;
+
+    /**
+     * Evento tomado por el worker (datos planos, sin entidad gestionada)
+     */
+    public record ClaimedWebhook(Long id, String paymentId, int attempts) {}
+
+    @Transactional
+    public void enqueue(String paymentId) {
+        webhookEventRepository.enqueue(paymentId, LocalDateTime.now());
+    }
+
+    /**
+     * Toma hasta {@code limit} eventos listos y los marca como PROCESANDO con un lease.
+     * Si el worker muere, el evento vuelve a estar disponible cuando vence el lease.
+     */
+    @Transactional
+    public List<ClaimedWebhook> claimBatch(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<WebhookEventEntity> events = webhookEventRepository.lockNextBatch(now, limit);
+
+        for (WebhookEventEntity event : events) {
+            event.setStatus(WebhookEventStatus.PROCESANDO);
+            event.setNextAttemptAt(now.plus(lease));
+        }
+
+        return events.stream()
+                .map(e -> new ClaimedWebhook(e.getId(), e.getPaymentId(), e.getAttempts()))
+                .toList();
+    }
+
+    @Transactional
+    public void markProcessed(Long id) {
+        webhookEventRepository.markProcessed(id, LocalDateTime.now());
+    }
+
+    /**
+     * Programa el siguiente reintento con backoff exponencial, o marca FALLIDO si se agotaron
+     * o si el error de la pasarela no es transitorio
+     */
+    @Transactional
+    public void markFailed(ClaimedWebhook event, Exception error) {
+        LocalDateTime now = LocalDateTime.now();
+        int attempts = event.attempts() + 1;
+        String message = truncate(error.getMessage());
+
+        if (error instanceof PaymentGatewayException gatewayException && !gatewayException.isRetryable()) {
+            log.error("Webhook del pago {} descartado, error no recuperable de la pasarela: {}", event.paymentId(), message);
+            webhookEventRepository.markFailed(event.id(), WebhookEventStatus.FALLIDO.name(), attempts, now, message, now);
+            return;
+        }
+
+        if (attempts >= maxAttempts) {
+            log.error("Webhook del pago {} descartado tras {} intentos: {}", event.paymentId(), attempts, message);
+            webhookEventRepository.markFailed(event.id(), WebhookEventStatus.FALLIDO.name(), attempts, now, message, now);
+            return;
+        }
+
+        Duration delay = backoffDelay(attempts);
+        log.warn("Webhook del pago {} falló (intento {}), reintento en {}s: {}",
+                event.paymentId(), attempts, delay.toSeconds(), message);
+        webhookEventRepository.markFailed(event.id(), WebhookEventStatus.PENDIENTE.name(), attempts, now.plus(delay), message, now);
+    }
+
+    // base * 2^(intentos - 1), con tope
+    private Duration backoffDelay(int attempts) {
+        long factor = 1L << Math.min(attempts - 1, 20);
+        Duration delay = backoffBase.multipliedBy(factor);
+        return delay.compareTo(backoffMax) > 0 ? backoffMax : delay;
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
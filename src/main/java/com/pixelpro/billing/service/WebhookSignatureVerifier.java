@@ -0,0 +1,68 @@
+package com.pixelpro.billing.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Valida la firma HMAC-SHA256 (header x-signature) de las notificaciones de Mercado Pago
+ */
+@Component
+@Slf4j
+public class WebhookSignatureVerifier {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    // La clave no cambia: se prepara una sola vez (Mac no es thread-safe, se crea por llamada)
+    private final SecretKeySpec secretKeySpec;
+
+    public WebhookSignatureVerifier(@Value("${mp.webhook.key}") String webhookKey) {
+        this.secretKeySpec = new SecretKeySpec(webhookKey.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+    }
+
+    public boolean isValid(String xSignature, String xRequestId, String dataId) {
+        try {
+            // Formato x-signature: "ts=...,v1=..."
+            String[] parts = xSignature.split(",");
+            String ts = null;
+            String v1 = null;
+
+            for (String part : parts) {
+                if (part.startsWith("ts=")) ts = part.substring(3);
+                if (part.startsWith("v1=")) v1 = part.substring(3);
+            }
+
+            if (ts == null || v1 == null) return false;
+
+            // Construir el "Manifest" string según documentación de MP
+            // id:[data.id];request-id:[x-request-id];ts:[ts];
+            String manifest = String.format("id:%s;request-id:%s;ts:%s;", dataId, xRequestId, ts);
+
+            // Calcular HMAC
+            Mac hmac = Mac.getInstance(HMAC_ALGORITHM);
+            hmac.init(secretKeySpec);
+            byte[] hashBytes = hmac.doFinal(manifest.getBytes(StandardCharsets.UTF_8));
+
+            // Convertir bytes a Hex
+            StringBuilder hexString = new StringBuilder();
+            for (byte b : hashBytes) {
+                String hex = Integer.toHexString(0xff & b);
+                if (hex.length() == 1) hexString.append('0');
+                hexString.append(hex);
+            }
+
+            // Comparar el hash calculado con el que vino en el header (v1)
+            return hexString.toString().equals(v1);
+
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            log.error("Error validando firma HMAC", e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.pixelpro.billing.service;
+
+import com.pixelpro.billing.config.WebhookQueueConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Consume la cola de webhooks: cada ciclo toma tantos eventos como hilos libres tenga el pool,
+ * de modo que nunca se toman eventos que luego no se pueden ejecutar.
+ */
+@Component
+@Slf4j
+public class WebhookWorker {
+
+    private final WebhookQueueService webhookQueueService;
+    private final PaymentWebhookService paymentWebhookService;
+    private final ThreadPoolTaskExecutor executor;
+
+    public WebhookWorker(WebhookQueueService webhookQueueService,
+                         PaymentWebhookService paymentWebhookService,
+                         @Qualifier(WebhookQueueConfig.WEBHOOK_EXECUTOR) ThreadPoolTaskExecutor executor) {
+        this.webhookQueueService = webhookQueueService;
+        this.paymentWebhookService = paymentWebhookService;
+        this.executor = executor;
+    }
+
+    @Scheduled(fixedDelayString = "${app.webhook.worker.poll-interval:2000}")
+    public void poll() {
+        int capacity = executor.getMaxPoolSize() - executor.getActiveCount();
+        if (capacity <= 0) {
+            return;
+        }
+
+        List<WebhookQueueService.ClaimedWebhook> batch;
+        try {
+            batch = webhookQueueService.claimBatch(capacity);
+        } catch (Exception e) {
+            log.error("No se pudo leer la cola de webhooks", e);
+            return;
+        }
+
+        for (WebhookQueueService.ClaimedWebhook event : batch) {
+            try {
+                executor.execute(() -> process(event));
+            } catch (TaskRejectedException e) {
+                // Pool lleno: el evento queda PROCESANDO y se retoma al vencer el lease
+                log.warn("Pool de webhooks saturado, el pago {} se reintentará más tarde", event.paymentId());
+            }
+        }
+    }
+
+    private void process(WebhookQueueService.ClaimedWebhook event) {
+        try {
+            paymentWebhookService.processPaymentNotification(event.paymentId());
+            webhookQueueService.markProcessed(event.id());
+        } catch (Exception e) {
+            webhookQueueService.markFailed(event, e);
+        }
+    }
+}
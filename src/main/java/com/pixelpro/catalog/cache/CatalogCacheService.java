@@ -0,0 +1,77 @@
+package com.pixelpro.catalog.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.pixelpro.catalog.config.CatalogCacheConfig;
+import com.pixelpro.catalog.dto.CacheStatsDto;
+import com.pixelpro.catalog.event.CatalogChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogCacheService {
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Invalida la caché recién cuando la transacción confirma, para que una lectura concurrente
+     * no vuelva a poblarla con datos anteriores al commit.
+     * fallbackExecution permite publicar el evento también fuera de una transacción.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        // Las páginas pueden contener cualquier producto: siempre se limpian completas
+        clear(CatalogCacheConfig.PRODUCT_PAGES);
+        clear(CatalogCacheConfig.PRODUCT_CURSOR_PAGES);
+
+        if (event.affectsAll()) {
+            clear(CatalogCacheConfig.PRODUCT_BY_ID);
+        } else {
+            Cache byId = cacheManager.getCache(CatalogCacheConfig.PRODUCT_BY_ID);
+            if (byId != null) {
+                event.productIds().forEach(byId::evict);
+            }
+        }
+        log.debug("Caché de catálogo invalidada. Productos afectados: {}",
+                event.affectsAll() ? "todos" : event.productIds());
+    }
+
+    /**
+     * Contadores de hit/miss de las cachés del catálogo
+     */
+    public List<CacheStatsDto> getStats() {
+        return cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .filter(CaffeineCache.class::isInstance)
+                .map(CaffeineCache.class::cast)
+                .map(cache -> {
+                    CacheStats stats = cache.getNativeCache().stats();
+                    return new CacheStatsDto(
+                            cache.getName(),
+                            stats.hitCount(),
+                            stats.missCount(),
+                            stats.hitRate(),
+                            stats.evictionCount(),
+                            cache.getNativeCache().estimatedSize()
+                    );
+                })
+                .toList();
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
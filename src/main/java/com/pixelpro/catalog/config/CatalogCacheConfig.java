@@ -0,0 +1,45 @@
+package com.pixelpro.catalog.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Caché en memoria (read-through) del catálogo público.
+ * Las entradas se expulsan por tamaño y por TTL, y además se invalidan por eventos
+ * cuando cambia un producto, una categoría o el stock (ver CatalogCacheService).
+ */
+@Configuration
+@EnableCaching
+public class CatalogCacheConfig {
+
+    // Páginas por offset (findAll) y por cursor (findPage): cachés separadas, sus claves no son comparables
+    public static final String PRODUCT_PAGES = "catalog.productPages";
+    public static final String PRODUCT_CURSOR_PAGES = "catalog.productCursorPages";
+    public static final String PRODUCT_BY_ID = "catalog.productById";
+
+    @Value("${app.cache.catalog.max-size:1000}")
+    private long maxSize;
+
+    @Value("${app.cache.catalog.ttl:5m}")
+    private Duration ttl;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PRODUCT_PAGES, PRODUCT_CURSOR_PAGES, PRODUCT_BY_ID);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                // Necesario para exponer los contadores de hit/miss
+                .recordStats());
+        // No cacheamos nulls: un producto inexistente lanza excepción y no llega a la caché
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+}
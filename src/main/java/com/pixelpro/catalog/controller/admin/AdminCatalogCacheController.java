@@ -0,0 +1,34 @@
+package com.pixelpro.catalog.controller.admin;
+
+import com.pixelpro.catalog.cache.CatalogCacheService;
+import com.pixelpro.catalog.dto.CacheStatsDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/catalog/cache")
+@RequiredArgsConstructor
+@Tag(name = "Admin - Catalog", description = "Endpoints de administración para gestionar el catálogo de productos y categorías")
+public class AdminCatalogCacheController {
+
+    private final CatalogCacheService catalogCacheService;
+
+    @Operation(
+            summary = "Estadísticas de la caché del catálogo",
+            description = "Retorna los contadores de aciertos (hit), fallos (miss) y expulsiones de las cachés en memoria " +
+                    "usadas por el catálogo público."
+    )
+    @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente")
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatsDto>> getStats() {
+        return ResponseEntity.ok(catalogCacheService.getStats());
+    }
+}
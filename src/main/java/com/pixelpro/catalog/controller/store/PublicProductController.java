@@ -2,6 +2,7 @@ package com.pixelpro.catalog.controller.store;
 
 import com.pixelpro.catalog.dto.ProductDto;
 import com.pixelpro.catalog.service.ProductService;
+import com.pixelpro.common.dto.CursorPageDto;
 import com.pixelpro.common.exception.ResourceNotFoundException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -23,12 +24,15 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class PublicProductController {
 
+    private static final int MAX_SCROLL_SIZE = 100;
+
     private final ProductService productService;
 
     @Operation(
             summary = "Listar productos activos",
             description = "Obtiene un listado paginado de productos activos disponibles en la tienda. " +
-                    "Permite filtrar por término de búsqueda (nombre o SKU) y categoría."
+                    "Permite filtrar por término de búsqueda (nombre o SKU) y categoría. " +
+                    "Cuando se envía un término de búsqueda, los resultados se ordenan por relevancia."
     )
     @ApiResponse(
             responseCode = "200",
@@ -48,6 +52,32 @@ public class PublicProductController {
         return ResponseEntity.ok(products);
     }
 
+    @Operation(
+            summary = "Listar productos activos por cursor (scroll infinito)",
+            description = "Paginación por cursor ordenada por nombre: cada página cuesta lo mismo sin importar su profundidad " +
+                    "y no se calcula el total. Enviar el nextCursor de la respuesta para obtener la página siguiente."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Página de productos obtenida exitosamente",
+            content = @Content(schema = @Schema(implementation = CursorPageDto.class))
+    )
+    @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content)
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDto<ProductDto>> scrollProducts(
+            @Parameter(description = "Término de búsqueda para filtrar por nombre o SKU")
+            @RequestParam(required = false) String search,
+            @Parameter(description = "ID de categoría para filtrar productos")
+            @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "Cursor devuelto por la página anterior (vacío para la primera página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo " + MAX_SCROLL_SIZE + ")")
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_SCROLL_SIZE);
+        return ResponseEntity.ok(productService.findPage(search, "ACTIVO", categoryId, cursor, pageSize));
+    }
+
     @Operation(
             summary = "Obtener detalle de producto",
             description = "Obtiene la información completa de un producto específico. " +
@@ -0,0 +1,25 @@
+package com.pixelpro.catalog.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Estadísticas de una caché en memoria del catálogo")
+public record CacheStatsDto(
+        @Schema(description = "Nombre de la caché", example = "catalog.productPages")
+        String name,
+
+        @Schema(description = "Lecturas servidas desde la caché", example = "1520")
+        long hitCount,
+
+        @Schema(description = "Lecturas que tuvieron que ir a la base de datos", example = "87")
+        long missCount,
+
+        @Schema(description = "Proporción de aciertos (0 a 1)", example = "0.94")
+        double hitRate,
+
+        @Schema(description = "Entradas expulsadas por tamaño o TTL", example = "12")
+        long evictionCount,
+
+        @Schema(description = "Número estimado de entradas actuales", example = "240")
+        long size
+) {
+}
@@ -12,10 +12,17 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "product")
+@Table(name = "product",
+        indexes = {
+                // Paginación por cursor del catálogo público (WHERE status = ? ORDER BY name, id)
+                @Index(name = "idx_product_status_name_id", columnList = "status, name, id"),
+                // Filtro por categoría (y estado) del listado de productos
+                @Index(name = "idx_product_category_status", columnList = "category_id, status")
+        })
 public class ProductEntity extends AuditableEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
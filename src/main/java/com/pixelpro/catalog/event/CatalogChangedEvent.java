@@ -0,0 +1,29 @@
+package com.pixelpro.catalog.event;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evento publicado cuando cambia información visible del catálogo público
+ * (alta/edición/baja de productos, cambios de categoría o movimientos de stock).
+ *
+ * @param productIds IDs de productos afectados. Vacío significa "todo el catálogo".
+ */
+public record CatalogChangedEvent(Collection<Long> productIds) {
+
+    public static CatalogChangedEvent ofProducts(Collection<Long> productIds) {
+        return new CatalogChangedEvent(List.copyOf(productIds));
+    }
+
+    public static CatalogChangedEvent ofProduct(Long productId) {
+        return new CatalogChangedEvent(List.of(productId));
+    }
+
+    public static CatalogChangedEvent all() {
+        return new CatalogChangedEvent(List.of());
+    }
+
+    public boolean affectsAll() {
+        return productIds.isEmpty();
+    }
+}
@@ -7,9 +7,18 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductRepository extends JpaRepository<ProductEntity, Long>, ProductRepositoryCustom {
     boolean existsBySku(String sku);
 
+    /**
+     * Carga varios productos junto con su categoría en una sola consulta
+     */
+    @Query("SELECT p FROM ProductEntity p LEFT JOIN FETCH p.category WHERE p.id IN :ids")
+    List<ProductEntity> findAllWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("""
             SELECT p FROM ProductEntity p
             WHERE (
@@ -26,4 +35,65 @@ public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
             @Param("categoryId") Long categoryId,
             Pageable pageable
     );
+
+    /**
+     * Paginación por cursor (keyset) ordenada por (nombre, id): busca directamente la posición
+     * siguiente al cursor en el índice (status, name, id), sin OFFSET ni COUNT.
+     * El término de búsqueda usa ILIKE, que aprovecha los índices trigram.
+     * Pedir limit = tamaño + 1 para saber si hay una página siguiente.
+     */
+    @Query(value = """
+            SELECT p.* FROM product p
+            WHERE p.status = :status
+            AND (CAST(:categoryId AS bigint) IS NULL OR p.category_id = :categoryId)
+            AND (CAST(:search AS text) IS NULL OR
+                 p.name ILIKE CONCAT('%', CAST(:search AS text), '%') OR
+                 p.sku ILIKE CONCAT('%', CAST(:search AS text), '%'))
+            AND (CAST(:afterName AS text) IS NULL OR
+                 (p.name, p.id) > (CAST(:afterName AS text), CAST(:afterId AS bigint)))
+            ORDER BY p.name ASC, p.id ASC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ProductEntity> findPageAfter(
+            @Param("search") String search,
+            @Param("status") String status,
+            @Param("categoryId") Long categoryId,
+            @Param("afterName") String afterName,
+            @Param("afterId") Long afterId,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Búsqueda indexada con pg_trgm (índices GIN sobre nombre y SKU).
+     * Ordena por relevancia (similitud de trigramas) y desempata por nombre,
+     * por lo que ignora el Sort del Pageable.
+     */
+    @Query(value = """
+            SELECT p.* FROM product p
+            WHERE (
+                p.name ILIKE CONCAT('%', :search, '%') OR
+                p.sku ILIKE CONCAT('%', :search, '%') OR
+                p.name % :search
+            )
+            AND (COALESCE(:status, '') = '' OR p.status = :status)
+            AND (CAST(:categoryId AS bigint) IS NULL OR p.category_id = :categoryId)
+            ORDER BY GREATEST(similarity(p.name, :search), similarity(p.sku, :search)) DESC, p.name ASC
+            """,
+            countQuery = """
+                    SELECT COUNT(*) FROM product p
+                    WHERE (
+                        p.name ILIKE CONCAT('%', :search, '%') OR
+                        p.sku ILIKE CONCAT('%', :search, '%') OR
+                        p.name % :search
+                    )
+                    AND (COALESCE(:status, '') = '' OR p.status = :status)
+                    AND (CAST(:categoryId AS bigint) IS NULL OR p.category_id = :categoryId)
+                    """,
+            nativeQuery = true)
+    Page<ProductEntity> searchByRelevance(
+            @Param("search") String search,
+            @Param("status") String status,
+            @Param("categoryId") Long categoryId,
+            Pageable pageable
+    );
 }
@@ -0,0 +1,26 @@
+package com.pixelpro.catalog.repository;
+
+import java.util.SortedMap;
+
+/**
+ * Operaciones de ProductRepository implementadas con JDBC directo.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Descuenta stock de varios productos en un único batch JDBC (un solo viaje a la BD).
+     * Cada sentencia es un UPDATE condicional (qty_stock >= cantidad), por lo que nunca deja stock negativo.
+     * Las sentencias se ejecutan en el orden del mapa (ID ascendente) para bloquear filas siempre en el mismo orden.
+     *
+     * @param quantities Cantidad a descontar por ID de producto
+     * @return Filas afectadas por cada producto, en el mismo orden del mapa (0 = stock insuficiente)
+     */
+    int[] decrementStockInBatch(SortedMap<Long, Integer> quantities);
+
+    /**
+     * Devuelve stock a varios productos en un único batch JDBC (p. ej. al compensar un checkout fallido).
+     *
+     * @param quantities Cantidad a sumar por ID de producto
+     */
+    void incrementStockInBatch(SortedMap<Long, Integer> quantities);
+}
@@ -0,0 +1,39 @@
+package com.pixelpro.catalog.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SortedMap;
+
+@RequiredArgsConstructor
+class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    private static final String DECREMENT_STOCK_SQL =
+            "UPDATE product SET qty_stock = qty_stock - ?, updated_at = ? WHERE id = ? AND qty_stock >= ?";
+
+    private static final String INCREMENT_STOCK_SQL =
+            "UPDATE product SET qty_stock = qty_stock + ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] decrementStockInBatch(SortedMap<Long, Integer> quantities) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = quantities.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), now, entry.getKey(), entry.getValue()})
+                .toList();
+        return jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, args);
+    }
+
+    @Override
+    public void incrementStockInBatch(SortedMap<Long, Integer> quantities) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = quantities.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), now, entry.getKey()})
+                .toList();
+        jdbcTemplate.batchUpdate(INCREMENT_STOCK_SQL, args);
+    }
+}
@@ -0,0 +1,58 @@
+package com.pixelpro.catalog.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Comprueba que existan los índices de trigramas (pg_trgm) que usa la búsqueda de productos.
+ * Los crea la migración V7__product_trigram_search; si la extensión no pudo instalarse
+ * (p. ej. sin permisos en la BD), la búsqueda vuelve automáticamente al modo LIKE.
+ */
+@Component
+@Order(0)
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchIndex implements CommandLineRunner {
+
+    private static final String TRIGRAM_INDEX_COUNT = """
+            SELECT COUNT(*) FROM pg_indexes
+            WHERE tablename = 'product' AND indexname IN ('idx_product_name_trgm', 'idx_product_sku_trgm')
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.catalog.search.mode:TRIGRAM}")
+    private ProductSearchMode configuredMode;
+
+    private volatile boolean trigramReady = false;
+
+    @Override
+    public void run(String... args) {
+        if (configuredMode != ProductSearchMode.TRIGRAM) {
+            return;
+        }
+        try {
+            Integer indexes = jdbcTemplate.queryForObject(TRIGRAM_INDEX_COUNT, Integer.class);
+            trigramReady = indexes != null && indexes == 2;
+            if (trigramReady) {
+                log.info("Índices de trigramas de productos listos.");
+            } else {
+                log.warn("Faltan los índices de trigramas de productos, la búsqueda usará LIKE.");
+            }
+        } catch (Exception e) {
+            log.warn("No se pudieron comprobar los índices de trigramas, la búsqueda de productos usará LIKE: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Modo de búsqueda efectivo (el configurado, o LIKE si los índices no están disponibles)
+     */
+    public ProductSearchMode getEffectiveMode() {
+        return trigramReady ? ProductSearchMode.TRIGRAM : ProductSearchMode.LIKE;
+    }
+}
@@ -0,0 +1,15 @@
+package com.pixelpro.catalog.search;
+
+/**
+ * Estrategia de búsqueda de productos por texto.
+ */
+public enum ProductSearchMode {
+    /**
+     * LIKE '%term%' sobre nombre y SKU (recorre toda la tabla)
+     */
+    LIKE,
+    /**
+     * Índices GIN de trigramas (pg_trgm) con ranking por similitud
+     */
+    TRIGRAM
+}
@@ -4,11 +4,13 @@ import com.pixelpro.catalog.dto.CategoryCreateDto;
 import com.pixelpro.catalog.dto.CategoryDto;
 import com.pixelpro.catalog.dto.CategoryUpdateDto;
 import com.pixelpro.catalog.entity.CategoryEntity;
+import com.pixelpro.catalog.event.CatalogChangedEvent;
 import com.pixelpro.catalog.mapper.CategoryMapper;
 import com.pixelpro.catalog.repository.CategoryRepository;
 import com.pixelpro.common.exception.ConflictException;
 import com.pixelpro.common.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -20,6 +22,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Page<CategoryDto> findAll(Long parentId, Pageable pageable) {
@@ -82,6 +85,8 @@ public class CategoryServiceImpl implements CategoryService {
 
         categoryMapper.updateEntityFromDto(dto, category);
         CategoryEntity updated = categoryRepository.save(category);
+        // Los productos embeben su categoría en el DTO: se invalida todo el catálogo cacheado
+        eventPublisher.publishEvent(CatalogChangedEvent.all());
         return categoryMapper.toDto(updated);
     }
 
@@ -100,6 +105,7 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(CatalogChangedEvent.all());
     }
 
     private boolean isDescendant(CategoryEntity potentialDescendant, Long ancestorId) {
@@ -3,6 +3,7 @@ package com.pixelpro.catalog.service;
 import com.pixelpro.catalog.dto.ProductCreateDto;
 import com.pixelpro.catalog.dto.ProductDto;
 import com.pixelpro.catalog.dto.ProductUpdateDto;
+import com.pixelpro.common.dto.CursorPageDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -13,6 +14,8 @@ public interface ProductService {
 
     Page<ProductDto> findAll(String search, String status, Long categoryId, Pageable pageable);
 
+    CursorPageDto<ProductDto> findPage(String search, String status, Long categoryId, String cursor, int size);
+
     ProductDto update(Long id, ProductUpdateDto dto);
 
     void delete(Long id);
@@ -1,21 +1,32 @@
 package com.pixelpro.catalog.service;
 
+import com.pixelpro.catalog.config.CatalogCacheConfig;
 import com.pixelpro.catalog.dto.ProductCreateDto;
 import com.pixelpro.catalog.dto.ProductDto;
 import com.pixelpro.catalog.dto.ProductUpdateDto;
 import com.pixelpro.catalog.entity.CategoryEntity;
 import com.pixelpro.catalog.entity.ProductEntity;
+import com.pixelpro.catalog.event.CatalogChangedEvent;
 import com.pixelpro.catalog.mapper.ProductMapper;
 import com.pixelpro.catalog.repository.CategoryRepository;
 import com.pixelpro.catalog.repository.ProductRepository;
+import com.pixelpro.catalog.search.ProductSearchIndex;
+import com.pixelpro.catalog.search.ProductSearchMode;
+import com.pixelpro.common.dto.CursorPageDto;
 import com.pixelpro.common.exception.ConflictException;
 import com.pixelpro.common.exception.ResourceNotFoundException;
+import com.pixelpro.common.pagination.CursorCodec;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
@@ -23,6 +34,8 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductSearchIndex productSearchIndex;
 
     @Override
     @Transactional
@@ -34,10 +47,12 @@ public class ProductServiceImpl implements ProductService {
         CategoryEntity category = loadCategory(dto.categoryId());
         product.setCategory(category);
         ProductEntity saved = productRepository.save(product);
+        eventPublisher.publishEvent(CatalogChangedEvent.ofProduct(saved.getId()));
         return productMapper.toDto(saved);
     }
 
     @Override
+    @Cacheable(CatalogCacheConfig.PRODUCT_BY_ID)
     public ProductDto findById(Long id) {
         ProductEntity product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
@@ -45,11 +60,45 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Cacheable(CatalogCacheConfig.PRODUCT_PAGES)
     public Page<ProductDto> findAll(String search, String status, Long categoryId, Pageable pageable) {
-        Page<ProductEntity> products = productRepository.findByFilters(search, status, categoryId, pageable);
+        Page<ProductEntity> products;
+        if (search != null && !search.isBlank()
+                && productSearchIndex.getEffectiveMode() == ProductSearchMode.TRIGRAM) {
+            // Con término de búsqueda, los resultados se ordenan por relevancia
+            Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+            products = productRepository.searchByRelevance(search.trim(), status, categoryId, unsorted);
+        } else {
+            products = productRepository.findByFilters(search, status, categoryId, pageable);
+        }
         return products.map(productMapper::toDto);
     }
 
+    @Override
+    @Cacheable(CatalogCacheConfig.PRODUCT_CURSOR_PAGES)
+    public CursorPageDto<ProductDto> findPage(String search, String status, Long categoryId, String cursor, int size) {
+        // Cursor = (id, nombre) del último producto de la página anterior
+        CursorCodec.TextId after = CursorCodec.decodeTextId(cursor);
+        Long afterId = after != null ? after.id() : null;
+        String afterName = after != null ? after.text() : null;
+        String normalizedSearch = (search != null && !search.isBlank()) ? search.trim() : null;
+
+        // Se pide un elemento extra para saber si hay página siguiente (sin COUNT)
+        List<ProductEntity> rows = productRepository.findPageAfter(
+                normalizedSearch, status, categoryId, afterName, afterId, size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<ProductEntity> page = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            ProductEntity last = page.get(page.size() - 1);
+            nextCursor = CursorCodec.encodeTextId(last.getName(), last.getId());
+        }
+
+        return new CursorPageDto<>(page.stream().map(productMapper::toDto).toList(), nextCursor, hasNext, size, null);
+    }
+
     @Override
     @Transactional
     public ProductDto update(Long id, ProductUpdateDto dto) {
@@ -61,6 +110,7 @@ public class ProductServiceImpl implements ProductService {
             product.setCategory(category);
         }
         ProductEntity updated = productRepository.save(product);
+        eventPublisher.publishEvent(CatalogChangedEvent.ofProduct(id));
         return productMapper.toDto(updated);
     }
 
@@ -70,6 +120,7 @@ public class ProductServiceImpl implements ProductService {
         ProductEntity product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         productRepository.delete(product);
+        eventPublisher.publishEvent(CatalogChangedEvent.ofProduct(id));
     }
 
     private CategoryEntity loadCategory(Long categoryId) {
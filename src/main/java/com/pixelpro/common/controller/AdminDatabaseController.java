@@ -0,0 +1,61 @@
+package com.pixelpro.common.controller;
+
+import com.pixelpro.common.database.QueryTimingListener;
+import com.pixelpro.common.dto.QueryStatsDto;
+import com.pixelpro.common.exception.ResourceNotFoundException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/database")
+@RequiredArgsConstructor
+@Tag(name = "Admin - Database", description = "Métricas internas de acceso a la base de datos")
+public class AdminDatabaseController {
+
+    private static final int MAX_LIMIT = 200;
+
+    private final ObjectProvider<QueryTimingListener> queryTimingListener;
+
+    @Operation(
+            summary = "Latencia de consultas SQL por forma",
+            description = "Retorna las consultas agrupadas por SQL (sin parámetros) ordenadas por tiempo total acumulado, " +
+                    "con media, máximo, percentiles aproximados e histograma de latencias."
+    )
+    @ApiResponse(responseCode = "200", description = "Métricas obtenidas exitosamente")
+    @ApiResponse(responseCode = "404", description = "La medición de consultas está desactivada")
+    @GetMapping("/query-stats")
+    public ResponseEntity<List<QueryStatsDto>> getQueryStats(
+            @Parameter(description = "Cantidad máxima de consultas a retornar (máximo " + MAX_LIMIT + ")")
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        int size = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        return ResponseEntity.ok(requireListener().getStats(size));
+    }
+
+    @Operation(
+            summary = "Reiniciar métricas de consultas SQL",
+            description = "Descarta los contadores acumulados, p. ej. antes de una prueba de carga."
+    )
+    @ApiResponse(responseCode = "204", description = "Métricas reiniciadas")
+    @DeleteMapping("/query-stats")
+    public ResponseEntity<Void> resetQueryStats() {
+        requireListener().reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    private QueryTimingListener requireListener() {
+        QueryTimingListener listener = queryTimingListener.getIfAvailable();
+        if (listener == null) {
+            throw new ResourceNotFoundException("La medición de consultas está desactivada (app.db.query-timing.enabled=false)");
+        }
+        return listener;
+    }
+}
@@ -0,0 +1,46 @@
+package com.pixelpro.common.database;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Envuelve el DataSource con un proxy que cronometra cada sentencia (ver QueryTimingListener).
+ * Se desactiva con app.db.query-timing.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.db.query-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryTimingConfig {
+
+    @Bean
+    public QueryTimingListener queryTimingListener(
+            @Value("${app.db.query-timing.slow-threshold:200ms}") Duration slowThreshold,
+            @Value("${app.db.query-timing.max-shapes:500}") int maxShapes
+    ) {
+        return new QueryTimingListener(slowThreshold, maxShapes);
+    }
+
+    // static: los BeanPostProcessor se registran antes que el resto de beans de la configuración
+    @Bean
+    public static BeanPostProcessor queryTimingDataSourcePostProcessor(ObjectProvider<QueryTimingListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(listener.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,172 @@
+package com.pixelpro.common.database;
+
+import com.pixelpro.common.dto.QueryStatsDto;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.StatementType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Mide la latencia de cada sentencia SQL agrupada por forma de consulta (SQL sin parámetros)
+ * en un histograma de buckets fijos. Sustituye a show-sql: no escribe nada por consulta,
+ * solo registra en el log las que superan el umbral de lentitud.
+ */
+@Slf4j
+public class QueryTimingListener implements QueryExecutionListener {
+
+    // Límites superiores (ms) de los buckets del histograma; el último bucket es "más de 2500 ms"
+    private static final long[] BUCKET_BOUNDS_MS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500};
+    private static final String OTHER_QUERIES = "(otras consultas)";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private final long slowThresholdMs;
+    private final int maxShapes;
+
+    public QueryTimingListener(Duration slowThreshold, int maxShapes) {
+        this.slowThresholdMs = slowThreshold.toMillis();
+        this.maxShapes = maxShapes;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Solo interesa el resultado
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMs = execInfo.getElapsedTime();
+        // Un lote (o un Statement con varias sentencias) se atribuye a la primera sentencia
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        String shape = execInfo.getStatementType() == StatementType.STATEMENT ? normalize(sql) : sql;
+
+        statsFor(shape).record(elapsedMs, execInfo.isSuccess());
+
+        if (elapsedMs >= slowThresholdMs) {
+            log.warn("Consulta lenta ({} ms{}): {}", elapsedMs,
+                    execInfo.isBatch() ? ", lote de " + execInfo.getBatchSize() : "",
+                    WHITESPACE.matcher(shape).replaceAll(" ").trim());
+        }
+    }
+
+    /**
+     * Formas de consulta ordenadas por tiempo total acumulado (las que más carga generan primero)
+     */
+    public List<QueryStatsDto> getStats(int limit) {
+        return shapes.entrySet().stream()
+                .map(entry -> entry.getValue().toDto(entry.getKey()))
+                .sorted(Comparator.comparingLong(QueryStatsDto::totalMillis).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        shapes.clear();
+    }
+
+    private ShapeStats statsFor(String shape) {
+        ShapeStats stats = shapes.get(shape);
+        if (stats != null) {
+            return stats;
+        }
+        // Acota la memoria si aparecen muchas formas distintas (p. ej. SQL con literales)
+        if (shapes.size() >= maxShapes) {
+            return shapes.computeIfAbsent(OTHER_QUERIES, k -> new ShapeStats());
+        }
+        return shapes.computeIfAbsent(shape, k -> new ShapeStats());
+    }
+
+    /**
+     * Sentencias no preparadas: reemplaza literales por '?' para agruparlas por forma
+     */
+    private static String normalize(String sql) {
+        String withoutStrings = STRING_LITERAL.matcher(sql).replaceAll("?");
+        return NUMBER_LITERAL.matcher(withoutStrings).replaceAll("?");
+    }
+
+    private static final class ShapeStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalMs = new LongAdder();
+        private final LongAccumulator maxMs = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MS.length + 1];
+
+        private ShapeStats() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        private void record(long elapsedMs, boolean success) {
+            count.increment();
+            if (!success) {
+                errors.increment();
+            }
+            totalMs.add(elapsedMs);
+            maxMs.accumulate(elapsedMs);
+            buckets[bucketIndex(elapsedMs)].increment();
+        }
+
+        private static int bucketIndex(long elapsedMs) {
+            for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+                if (elapsedMs <= BUCKET_BOUNDS_MS[i]) {
+                    return i;
+                }
+            }
+            return BUCKET_BOUNDS_MS.length;
+        }
+
+        private QueryStatsDto toDto(String shape) {
+            long[] counts = new long[buckets.length];
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+                String label = i < BUCKET_BOUNDS_MS.length ? "<=" + BUCKET_BOUNDS_MS[i] + "ms" : ">2500ms";
+                histogram.put(label, counts[i]);
+            }
+            long total = count.sum();
+            long max = maxMs.get();
+            return new QueryStatsDto(
+                    WHITESPACE.matcher(shape).replaceAll(" ").trim(),
+                    total,
+                    errors.sum(),
+                    totalMs.sum(),
+                    total == 0 ? 0 : (double) totalMs.sum() / total,
+                    max,
+                    percentile(counts, total, max, 0.50),
+                    percentile(counts, total, max, 0.95),
+                    percentile(counts, total, max, 0.99),
+                    histogram
+            );
+        }
+
+        /**
+         * Percentil aproximado: límite superior del bucket donde cae (acotado por el máximo observado)
+         */
+        private static long percentile(long[] counts, long total, long max, double quantile) {
+            long rank = (long) Math.ceil(total * quantile);
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                if (cumulative >= rank && cumulative > 0) {
+                    return i < BUCKET_BOUNDS_MS.length ? Math.min(BUCKET_BOUNDS_MS[i], max) : max;
+                }
+            }
+            return max;
+        }
+    }
+}
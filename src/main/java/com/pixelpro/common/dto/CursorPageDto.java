@@ -0,0 +1,26 @@
+package com.pixelpro.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Página de resultados con paginación por cursor (keyset), sin total exacto de elementos")
+public record CursorPageDto<T>(
+        @Schema(description = "Elementos de la página")
+        List<T> content,
+
+        @Schema(description = "Cursor opaco para pedir la página siguiente. Null si no hay más resultados",
+                example = "MTI6TGFwdG9wIERlbGw")
+        String nextCursor,
+
+        @Schema(description = "Indica si existen más resultados", example = "true")
+        boolean hasNext,
+
+        @Schema(description = "Tamaño de página solicitado", example = "20")
+        int size,
+
+        @Schema(description = "Total aproximado de resultados (estadísticas de la tabla o conteo cacheado). " +
+                "Null si el listado no lo calcula", example = "15230", nullable = true)
+        Long approximateTotal
+) {
+}
@@ -0,0 +1,40 @@
+package com.pixelpro.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+@Schema(description = "Latencia acumulada de una forma de consulta SQL")
+public record QueryStatsDto(
+        @Schema(description = "SQL de la consulta con parámetros como '?'",
+                example = "select p1_0.id,p1_0.name from product p1_0 where p1_0.id=?")
+        String sql,
+
+        @Schema(description = "Ejecuciones registradas", example = "1520")
+        long count,
+
+        @Schema(description = "Ejecuciones que terminaron con error", example = "0")
+        long errorCount,
+
+        @Schema(description = "Tiempo total acumulado en milisegundos", example = "3040")
+        long totalMillis,
+
+        @Schema(description = "Latencia media en milisegundos", example = "2.0")
+        double avgMillis,
+
+        @Schema(description = "Latencia máxima en milisegundos", example = "48")
+        long maxMillis,
+
+        @Schema(description = "Percentil 50 aproximado (límite del bucket) en milisegundos", example = "2")
+        long p50Millis,
+
+        @Schema(description = "Percentil 95 aproximado (límite del bucket) en milisegundos", example = "10")
+        long p95Millis,
+
+        @Schema(description = "Percentil 99 aproximado (límite del bucket) en milisegundos", example = "25")
+        long p99Millis,
+
+        @Schema(description = "Ejecuciones por bucket de latencia")
+        Map<String, Long> histogram
+) {
+}
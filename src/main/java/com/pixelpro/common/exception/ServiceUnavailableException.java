@@ -0,0 +1,7 @@
+package com.pixelpro.common.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,56 @@
+package com.pixelpro.common.pagination;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Totales aproximados para los listados por cursor, sin un COUNT(*) por cada página.
+ * Sin filtros se usa la estimación de filas de las estadísticas de PostgreSQL (pg_class.reltuples);
+ * con filtros se cachea el COUNT exacto durante un TTL corto.
+ */
+@Component
+public class ApproximateCountService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, Long> counts;
+
+    public ApproximateCountService(
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.pagination.count-cache.ttl:60s}") Duration ttl,
+            @Value("${app.pagination.count-cache.max-size:500}") long maxSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Estimación de filas de la tabla según el último ANALYZE / autovacuum.
+     * Si la tabla nunca fue analizada (reltuples = -1) se cae al COUNT exacto cacheado.
+     */
+    public long estimateTable(String table, Supplier<Long> exactCount) {
+        Long estimate = jdbcTemplate.query(
+                "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)",
+                rs -> rs.next() ? rs.getLong(1) : null,
+                table);
+        if (estimate != null && estimate >= 0) {
+            return estimate;
+        }
+        return cachedCount(table, exactCount);
+    }
+
+    /**
+     * COUNT exacto cacheado por clave (tabla + filtros); puede estar desfasado hasta el TTL
+     */
+    public long cachedCount(String key, Supplier<Long> exactCount) {
+        return counts.get(key, k -> exactCount.get());
+    }
+}
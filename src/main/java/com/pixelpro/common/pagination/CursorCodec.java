@@ -0,0 +1,98 @@
+package com.pixelpro.common.pagination;
+
+import com.pixelpro.common.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Codifica la posición de la última fila de una página (claves de orden) como un cursor opaco.
+ * El cliente solo lo devuelve tal cual para pedir la página siguiente.
+ */
+public final class CursorCodec {
+
+    private static final char SEPARATOR = '\n';
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Posición en un orden por (fecha, id), p. ej. ORDER BY created_at DESC, id DESC
+     */
+    public record TimestampId(LocalDateTime timestamp, Long id) {}
+
+    /**
+     * Posición en un orden por (texto, id), p. ej. ORDER BY name, id
+     */
+    public record TextId(String text, Long id) {}
+
+    public static String encode(String... keys) {
+        String raw = String.join(String.valueOf(SEPARATOR), keys);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return las claves del cursor, o null si no se envió cursor (primera página)
+     * @throws BadRequestException si el cursor no es válido
+     */
+    public static String[] decode(String cursor, int expectedKeys) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // El último campo puede contener el separador (p. ej. un nombre): se corta en expectedKeys partes
+            String[] keys = raw.split(String.valueOf(SEPARATOR), expectedKeys);
+            if (keys.length == expectedKeys) {
+                return keys;
+            }
+        } catch (IllegalArgumentException e) {
+            // Base64 mal formado
+        }
+        throw new BadRequestException("Cursor inválido");
+    }
+
+    public static String encodeTimestampId(LocalDateTime timestamp, Long id) {
+        return encode(timestamp.toString(), String.valueOf(id));
+    }
+
+    /**
+     * @return la posición del cursor, o null si no se envió cursor (primera página)
+     * @throws BadRequestException si el cursor no es válido
+     */
+    public static TimestampId decodeTimestampId(String cursor) {
+        String[] keys = decode(cursor, 2);
+        if (keys == null) {
+            return null;
+        }
+        try {
+            return new TimestampId(LocalDateTime.parse(keys[0]), parseId(keys[1]));
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+
+    public static String encodeTextId(String text, Long id) {
+        // El texto va al final: puede contener el separador
+        return encode(String.valueOf(id), text);
+    }
+
+    /**
+     * @return la posición del cursor, o null si no se envió cursor (primera página)
+     * @throws BadRequestException si el cursor no es válido
+     */
+    public static TextId decodeTextId(String cursor) {
+        String[] keys = decode(cursor, 2);
+        return keys != null ? new TextId(keys[1], parseId(keys[0])) : null;
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.pixelpro.common.simulation;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Simula el comportamiento de un servicio externo en las implementaciones falsas del perfil loadtest:
+ * latencia base más jitter aleatorio y una tasa de error configurable.
+ */
+public class GatewaySimulator {
+
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double errorRate;
+
+    public GatewaySimulator(Duration latency, Duration jitter, double errorRate) {
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("La tasa de error debe estar entre 0 y 1: " + errorRate);
+        }
+        this.latencyMs = latency.toMillis();
+        this.jitterMs = jitter.toMillis();
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * Espera la latencia simulada y decide si la llamada falla.
+     *
+     * @return true si la llamada debe responder con éxito
+     */
+    public boolean call() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return random.nextDouble() >= errorRate;
+    }
+}
@@ -2,15 +2,19 @@ package com.pixelpro.common.storage;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import io.micrometer.core.annotation.Timed;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.Map;
 
+// En el perfil loadtest la reemplaza FakeStorageService
 @Service
+@Profile("!loadtest")
 public class CloudinaryStorageService implements FileStorageService {
 
     // Inyección de credenciales desde application.properties
@@ -39,6 +43,7 @@ public class CloudinaryStorageService implements FileStorageService {
     }
 
     @Override
+    @Timed(value = "pixelpro.storage.upload", description = "Subida de imágenes de producto a Cloudinary", histogram = true)
     public String uploadProductImage(MultipartFile file) {
         try {
             // Subimos el archivo (convertido a bytes)
@@ -0,0 +1,45 @@
+package com.pixelpro.common.storage;
+
+import com.pixelpro.common.simulation.GatewaySimulator;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Cloudinary simulado para pruebas de carga (perfil loadtest): no sube nada,
+ * solo aplica la latencia/tasa de error configuradas y retorna una URL ficticia.
+ */
+@Service
+@Profile("loadtest")
+@Slf4j
+public class FakeStorageService implements FileStorageService {
+
+    private final GatewaySimulator simulator;
+
+    public FakeStorageService(
+            @Value("${app.fake-gateways.storage.latency:300ms}") Duration latency,
+            @Value("${app.fake-gateways.storage.jitter:200ms}") Duration jitter,
+            @Value("${app.fake-gateways.storage.error-rate:0.0}") double errorRate
+    ) {
+        this.simulator = new GatewaySimulator(latency, jitter, errorRate);
+        log.warn("Almacenamiento de imágenes SIMULADO activo (latencia {} + hasta {}, tasa de error {})", latency, jitter, errorRate);
+    }
+
+    @Override
+    @Timed(value = "pixelpro.storage.upload", description = "Subida de imágenes de producto a Cloudinary", histogram = true)
+    public String uploadProductImage(MultipartFile file) {
+        if (!simulator.call()) {
+            throw new RuntimeException("Error simulado al subir imagen: " + file.getOriginalFilename());
+        }
+        String extension = StringUtils.getFilenameExtension(file.getOriginalFilename());
+        return "https://loadtest.invalid/pixelpro/products/" + UUID.randomUUID()
+                + (extension != null ? "." + extension : "");
+    }
+}
@@ -1,5 +1,6 @@
 package com.pixelpro.customers.controller.admin;
 
+import com.pixelpro.common.dto.CursorPageDto;
 import com.pixelpro.customers.dto.CustomerDto;
 import com.pixelpro.customers.dto.CustomerUpdateDto;
 import com.pixelpro.customers.entity.enums.CustomerType;
@@ -27,6 +28,8 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Admin - Customers", description = "Endpoints de administración para gestionar clientes")
 public class AdminCustomerController {
 
+    private static final int MAX_SCROLL_SIZE = 100;
+
     private final CustomerService customerService;
 
     @Operation(
@@ -73,6 +76,37 @@ public class AdminCustomerController {
         return ResponseEntity.ok(customers);
     }
 
+    @Operation(
+            summary = "Listar clientes por cursor",
+            description = "Variante del listado con paginación por cursor, ordenada por fecha de creación descendente. " +
+                    "No ejecuta COUNT por página: el total devuelto es aproximado (estadísticas de la tabla o conteo cacheado). " +
+                    "Enviar el nextCursor de la respuesta para obtener la página siguiente."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Página de clientes obtenida exitosamente",
+                    content = @Content(schema = @Schema(implementation = CursorPageDto.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content)
+    })
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDto<CustomerDto>> scrollCustomers(
+            @Parameter(description = "Término de búsqueda global: nombre, apellido, email o número de documento")
+            @RequestParam(required = false) String search,
+            @Parameter(description = "Filtro por tipo de documento", example = "DNI")
+            @RequestParam(required = false) DocumentType documentType,
+            @Parameter(description = "Filtro por tipo de cliente", example = "NATURAL")
+            @RequestParam(required = false) CustomerType customerType,
+            @Parameter(description = "Cursor devuelto por la página anterior (vacío para la primera página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo " + MAX_SCROLL_SIZE + ")")
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_SCROLL_SIZE);
+        return ResponseEntity.ok(customerService.scrollCustomers(search, documentType, customerType, cursor, pageSize));
+    }
+
     @Operation(
             summary = "Obtener cliente por ID",
             description = "Obtiene los detalles completos de un cliente específico mediante su identificador único, incluyendo todas sus direcciones registradas."
@@ -20,10 +20,13 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "customers")
+@Table(name = "customers",
+        // Soporta la paginación por cursor del panel admin (ORDER BY created_at DESC, id DESC)
+        indexes = @Index(name = "idx_customers_created_at_id", columnList = "created_at, id"))
 public class CustomerEntity extends AuditableEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customers_seq")
+    @SequenceGenerator(name = "customers_seq", sequenceName = "customers_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
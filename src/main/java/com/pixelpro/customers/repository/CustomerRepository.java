@@ -9,12 +9,21 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CustomerRepository extends JpaRepository<CustomerEntity, Long> {
 
     Optional<CustomerEntity> findByEmail(String email);
 
+    /**
+     * Inicializa en una sola consulta las direcciones de varios clientes
+     */
+    @Query("SELECT DISTINCT c FROM CustomerEntity c LEFT JOIN FETCH c.addresses WHERE c.id IN :ids")
+    List<CustomerEntity> fetchAddressesByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("""
             SELECT c FROM CustomerEntity c
             WHERE (
@@ -33,4 +42,53 @@ public interface CustomerRepository extends JpaRepository<CustomerEntity, Long>
             @Param("customerType") CustomerType customerType,
             Pageable pageable
     );
+
+    /**
+     * Clientes por cursor (keyset) ordenados por (createdAt, id) descendente, sin COUNT.
+     * El límite lo fija el Pageable (tamaño + 1). La comparación de filas (created_at, id) < (...)
+     * es un único rango en idx_customers_created_at_id.
+     */
+    @Query("""
+            SELECT c FROM CustomerEntity c
+            WHERE (
+                :search IS NULL OR :search = '' OR
+                LOWER(c.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR
+                LOWER(c.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR
+                LOWER(c.email) LIKE LOWER(CONCAT('%', :search, '%')) OR
+                LOWER(c.documentNumber) LIKE LOWER(CONCAT('%', :search, '%'))
+            )
+            AND (:documentType IS NULL OR c.documentType = :documentType)
+            AND (:customerType IS NULL OR c.customerType = :customerType)
+            AND (:afterId IS NULL OR (c.createdAt, c.id) < (:afterCreatedAt, :afterId))
+            ORDER BY c.createdAt DESC, c.id DESC
+            """)
+    List<CustomerEntity> findPageAfter(
+            @Param("search") String search,
+            @Param("documentType") DocumentType documentType,
+            @Param("customerType") CustomerType customerType,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") Long afterId,
+            Pageable limit
+    );
+
+    /**
+     * COUNT con los mismos filtros que {@link #findPageAfter}; se usa cacheado como total aproximado
+     */
+    @Query("""
+            SELECT COUNT(c) FROM CustomerEntity c
+            WHERE (
+                :search IS NULL OR :search = '' OR
+                LOWER(c.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR
+                LOWER(c.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR
+                LOWER(c.email) LIKE LOWER(CONCAT('%', :search, '%')) OR
+                LOWER(c.documentNumber) LIKE LOWER(CONCAT('%', :search, '%'))
+            )
+            AND (:documentType IS NULL OR c.documentType = :documentType)
+            AND (:customerType IS NULL OR c.customerType = :customerType)
+            """)
+    long countByFilters(
+            @Param("search") String search,
+            @Param("documentType") DocumentType documentType,
+            @Param("customerType") CustomerType customerType
+    );
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.pixelpro.customers.service;
 
+import com.pixelpro.common.dto.CursorPageDto;
 import com.pixelpro.customers.dto.*;
 import com.pixelpro.customers.entity.enums.CustomerType;
 import com.pixelpro.customers.entity.enums.DocumentType;
@@ -12,6 +13,8 @@ public interface CustomerService {
     // Admin endpoints
     Page<CustomerDto> getAllCustomers(String search, DocumentType documentType, CustomerType customerType, Pageable pageable);
 
+    CursorPageDto<CustomerDto> scrollCustomers(String search, DocumentType documentType, CustomerType customerType, String cursor, int size);
+
     CustomerDto getCustomerById(Long id);
 
     CustomerDto updateCustomer(Long id, CustomerUpdateDto dto);
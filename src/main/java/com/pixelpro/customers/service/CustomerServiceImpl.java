@@ -1,7 +1,10 @@
 package com.pixelpro.customers.service;
 
 import com.pixelpro.auth.repository.UserRepository;
+import com.pixelpro.common.dto.CursorPageDto;
 import com.pixelpro.common.exception.ResourceNotFoundException;
+import com.pixelpro.common.pagination.ApproximateCountService;
+import com.pixelpro.common.pagination.CursorCodec;
 import com.pixelpro.customers.dto.*;
 import com.pixelpro.customers.entity.AddressEntity;
 import com.pixelpro.customers.entity.CustomerEntity;
@@ -13,11 +16,13 @@ import com.pixelpro.customers.repository.AddressRepository;
 import com.pixelpro.customers.repository.CustomerRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -30,6 +35,7 @@ public class CustomerServiceImpl implements CustomerService {
     private final AddressMapper addressMapper;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApproximateCountService approximateCountService;
 
     @Override
     public Page<CustomerDto> getAllCustomers(String search, DocumentType documentType, CustomerType customerType, Pageable pageable) {
@@ -37,6 +43,40 @@ public class CustomerServiceImpl implements CustomerService {
         return customers.map(customerMapper::toDto);
     }
 
+    @Override
+    public CursorPageDto<CustomerDto> scrollCustomers(String search, DocumentType documentType, CustomerType customerType,
+                                                      String cursor, int size) {
+        String normalizedSearch = (search != null && !search.isBlank()) ? search.trim() : null;
+
+        // Cursor = (createdAt, id) del último cliente de la página anterior
+        CursorCodec.TimestampId after = CursorCodec.decodeTimestampId(cursor);
+        LocalDateTime afterCreatedAt = after != null ? after.timestamp() : null;
+        Long afterId = after != null ? after.id() : null;
+
+        // Se pide un elemento extra para saber si hay página siguiente (sin COUNT)
+        List<CustomerEntity> rows = customerRepository.findPageAfter(
+                normalizedSearch, documentType, customerType, afterCreatedAt, afterId, PageRequest.of(0, size + 1));
+
+        boolean hasNext = rows.size() > size;
+        List<CustomerEntity> page = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            CustomerEntity last = page.get(page.size() - 1);
+            nextCursor = CursorCodec.encodeTimestampId(last.getCreatedAt(), last.getId());
+        }
+
+        // Total aproximado: estadísticas de la tabla sin filtros, COUNT cacheado con filtros
+        long approximateTotal = (normalizedSearch == null && documentType == null && customerType == null)
+                ? approximateCountService.estimateTable("customers", customerRepository::count)
+                : approximateCountService.cachedCount(
+                        "customers:" + normalizedSearch + ":" + documentType + ":" + customerType,
+                        () -> customerRepository.countByFilters(normalizedSearch, documentType, customerType));
+
+        return new CursorPageDto<>(page.stream().map(customerMapper::toDto).toList(), nextCursor, hasNext, size,
+                approximateTotal);
+    }
+
     @Override
     public CustomerDto getCustomerById(Long id) {
         CustomerEntity customer = customerRepository.findById(id)
@@ -163,4 +203,3 @@ public class CustomerServiceImpl implements CustomerService {
         addressRepository.delete(address);
     }
 }
-
@@ -0,0 +1,62 @@
+package com.pixelpro.dashboard.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Pool acotado para ejecutar en paralelo las consultas independientes del dashboard.
+ * Cada tarea abre su propia transacción de solo lectura, así que el tamaño del pool
+ * también limita las conexiones de BD que puede ocupar el dashboard.
+ * <p>
+ * Además, un hilo propio aplica los cambios de las órdenes a los agregados (ver DashboardAggregateService).
+ */
+@Configuration
+@EnableAsync
+@Slf4j
+public class DashboardConfig {
+
+    public static final String DASHBOARD_EXECUTOR = "dashboardExecutor";
+    public static final String AGGREGATE_EXECUTOR = "dashboardAggregateExecutor";
+
+    @Value("${app.dashboard.executor.threads:6}")
+    private int threads;
+
+    @Value("${app.dashboard.executor.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${app.dashboard.aggregate.queue-capacity:10000}")
+    private int aggregateQueueCapacity;
+
+    @Bean(name = DASHBOARD_EXECUTOR)
+    public ThreadPoolTaskExecutor dashboardExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        return executor;
+    }
+
+    /**
+     * Un solo hilo: las actualizaciones de los agregados se aplican en orden, de a una (las filas
+     * del día y de cada estado son las mismas para todas las órdenes) y ocupan como máximo una conexión.
+     * Si la cola se llena se descarta el cambio; DashboardAggregateReconciler lo corrige al recalcular.
+     */
+    @Bean(name = AGGREGATE_EXECUTOR)
+    public ThreadPoolTaskExecutor dashboardAggregateExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(aggregateQueueCapacity);
+        executor.setThreadNamePrefix("dashboard-aggregates-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("Cola de agregados del dashboard llena: se descarta una actualización (la corrige la reconciliación)"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
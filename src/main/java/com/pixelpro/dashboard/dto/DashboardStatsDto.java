@@ -33,7 +33,10 @@ public record DashboardStatsDto(
         List<TopProductDto> topProducts,
 
         @Schema(description = "Últimas 5 órdenes creadas en el sistema")
-        List<OrderDto> latestOrders
+        List<OrderDto> latestOrders,
+
+        @Schema(description = "true si alguna consulta excedió el tiempo límite o falló; los datos faltantes vienen en null o vacíos", example = "false")
+        Boolean partial
 ) {
 }
 
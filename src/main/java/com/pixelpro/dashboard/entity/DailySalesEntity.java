@@ -0,0 +1,30 @@
+package com.pixelpro.dashboard.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Ventas acumuladas por día (fecha de creación de la orden), solo órdenes pagadas.
+ * Tabla de agregados mantenida por DashboardAggregateService.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "dashboard_daily_sales")
+public class DailySalesEntity {
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+}
@@ -0,0 +1,26 @@
+package com.pixelpro.dashboard.entity;
+
+import com.pixelpro.orders.entity.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Último estado de cada orden ya aplicado a los agregados del dashboard.
+ * Lo mantiene DashboardAggregateService para no aplicar dos veces el mismo cambio de estado.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "dashboard_order_state")
+public class OrderAggregateStateEntity {
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+}
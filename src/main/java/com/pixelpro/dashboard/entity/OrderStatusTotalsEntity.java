@@ -0,0 +1,31 @@
+package com.pixelpro.dashboard.entity;
+
+import com.pixelpro.orders.entity.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Cantidad de órdenes y monto total por estado.
+ * Tabla de agregados mantenida por DashboardAggregateService.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "dashboard_order_status_totals")
+public class OrderStatusTotalsEntity {
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private OrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+}
@@ -0,0 +1,30 @@
+package com.pixelpro.dashboard.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Unidades vendidas e ingresos acumulados por producto, solo órdenes pagadas.
+ * Tabla de agregados mantenida por DashboardAggregateService.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "dashboard_product_sales",
+        indexes = @Index(name = "idx_dashboard_product_sales_qty", columnList = "qty_sold"))
+public class ProductSalesEntity {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "qty_sold", nullable = false)
+    private long qtySold;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+}
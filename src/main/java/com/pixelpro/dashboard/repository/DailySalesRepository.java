@@ -0,0 +1,47 @@
+package com.pixelpro.dashboard.repository;
+
+import com.pixelpro.dashboard.entity.DailySalesEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface DailySalesRepository extends JpaRepository<DailySalesEntity, LocalDate> {
+
+    List<DailySalesEntity> findBySalesDateBetween(LocalDate start, LocalDate end);
+
+    /**
+     * Suma (o resta, con valores negativos) una venta al día indicado de forma atómica
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO dashboard_daily_sales (sales_date, order_count, revenue)
+            VALUES (:date, :orders, :amount)
+            ON CONFLICT (sales_date) DO UPDATE
+                SET order_count = dashboard_daily_sales.order_count + EXCLUDED.order_count,
+                    revenue = dashboard_daily_sales.revenue + EXCLUDED.revenue
+            """, nativeQuery = true)
+    void addSales(@Param("date") LocalDate date, @Param("orders") long orders, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query(value = "DELETE FROM dashboard_daily_sales", nativeQuery = true)
+    void deleteAllRows();
+
+    /**
+     * Recalcula la tabla completa desde las órdenes
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO dashboard_daily_sales (sales_date, order_count, revenue)
+            SELECT CAST(o.created_at AS date), COUNT(*), COALESCE(SUM(o.total), 0)
+            FROM orders o
+            WHERE o.status IN (:statuses)
+            GROUP BY CAST(o.created_at AS date)
+            """, nativeQuery = true)
+    void rebuildFromOrders(@Param("statuses") Collection<String> statuses);
+}
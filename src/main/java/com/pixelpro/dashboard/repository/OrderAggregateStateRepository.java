@@ -0,0 +1,60 @@
+package com.pixelpro.dashboard.repository;
+
+import com.pixelpro.dashboard.entity.OrderAggregateStateEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OrderAggregateStateRepository extends JpaRepository<OrderAggregateStateEntity, Long> {
+
+    /**
+     * Lo toma cada actualización incremental antes de tocar los agregados. No bloquea a las demás
+     * actualizaciones, pero espera a que termine una reconciliación en curso (y viceversa).
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE dashboard_order_state IN ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForUpdate();
+
+    /**
+     * Lo toma la reconciliación como primera sentencia de su transacción, antes de su snapshot
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE dashboard_order_state IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    /**
+     * Registra una orden nueva. 0 filas si ya estaba (la reconciliación ya la contó).
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO dashboard_order_state (order_id, status)
+            VALUES (:orderId, :status)
+            ON CONFLICT (order_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("orderId") Long orderId, @Param("status") String status);
+
+    /**
+     * Mueve la orden al nuevo estado solo si los agregados la tienen en el anterior.
+     * 0 filas si el cambio ya está aplicado (o la orden no está registrada).
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE dashboard_order_state SET status = :newStatus
+            WHERE order_id = :orderId AND status = :previousStatus
+            """, nativeQuery = true)
+    int transition(@Param("orderId") Long orderId,
+                   @Param("previousStatus") String previousStatus,
+                   @Param("newStatus") String newStatus);
+
+    @Modifying
+    @Query(value = "DELETE FROM dashboard_order_state", nativeQuery = true)
+    void deleteAllRows();
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO dashboard_order_state (order_id, status)
+            SELECT o.id, o.status FROM orders o
+            """, nativeQuery = true)
+    void rebuildFromOrders();
+}
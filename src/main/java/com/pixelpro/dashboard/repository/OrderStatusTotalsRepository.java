@@ -0,0 +1,42 @@
+package com.pixelpro.dashboard.repository;
+
+import com.pixelpro.dashboard.entity.OrderStatusTotalsEntity;
+import com.pixelpro.orders.entity.enums.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+
+public interface OrderStatusTotalsRepository extends JpaRepository<OrderStatusTotalsEntity, OrderStatus> {
+
+    /**
+     * Suma (o resta, con valores negativos) órdenes y monto a un estado de forma atómica
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO dashboard_order_status_totals (status, order_count, revenue)
+            VALUES (:status, :orders, :amount)
+            ON CONFLICT (status) DO UPDATE
+                SET order_count = dashboard_order_status_totals.order_count + EXCLUDED.order_count,
+                    revenue = dashboard_order_status_totals.revenue + EXCLUDED.revenue
+            """, nativeQuery = true)
+    void addOrders(@Param("status") String status, @Param("orders") long orders, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query(value = "DELETE FROM dashboard_order_status_totals", nativeQuery = true)
+    void deleteAllRows();
+
+    /**
+     * Recalcula la tabla completa desde las órdenes
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO dashboard_order_status_totals (status, order_count, revenue)
+            SELECT o.status, COUNT(*), COALESCE(SUM(o.total), 0)
+            FROM orders o
+            GROUP BY o.status
+            """, nativeQuery = true)
+    void rebuildFromOrders();
+}
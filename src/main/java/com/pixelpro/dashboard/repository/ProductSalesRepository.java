@@ -0,0 +1,57 @@
+package com.pixelpro.dashboard.repository;
+
+import com.pixelpro.dashboard.entity.ProductSalesEntity;
+import com.pixelpro.dashboard.projection.TopProductProjection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductSalesRepository extends JpaRepository<ProductSalesEntity, Long> {
+
+    /**
+     * Productos más vendidos según el agregado (el nombre se toma del catálogo actual)
+     */
+    @Query("SELECT s.productId as productId, p.name as productName, " +
+            "s.qtySold as qtySold, s.revenue as revenue " +
+            "FROM ProductSalesEntity s, ProductEntity p " +
+            "WHERE p.id = s.productId AND s.qtySold > 0 " +
+            "ORDER BY s.qtySold DESC")
+    List<TopProductProjection> findTopSelling(Pageable pageable);
+
+    /**
+     * Suma (o resta, con valores negativos) unidades e ingresos a un producto de forma atómica
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO dashboard_product_sales (product_id, qty_sold, revenue)
+            VALUES (:productId, :qty, :amount)
+            ON CONFLICT (product_id) DO UPDATE
+                SET qty_sold = dashboard_product_sales.qty_sold + EXCLUDED.qty_sold,
+                    revenue = dashboard_product_sales.revenue + EXCLUDED.revenue
+            """, nativeQuery = true)
+    void addSales(@Param("productId") Long productId, @Param("qty") long qty, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query(value = "DELETE FROM dashboard_product_sales", nativeQuery = true)
+    void deleteAllRows();
+
+    /**
+     * Recalcula la tabla completa desde los ítems de órdenes
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO dashboard_product_sales (product_id, qty_sold, revenue)
+            SELECT i.product_id, SUM(i.quantity), COALESCE(SUM(i.unit_price * i.quantity), 0)
+            FROM order_items i
+            JOIN orders o ON o.id = i.order_id
+            WHERE o.status IN (:statuses)
+            GROUP BY i.product_id
+            """, nativeQuery = true)
+    void rebuildFromOrders(@Param("statuses") Collection<String> statuses);
+}
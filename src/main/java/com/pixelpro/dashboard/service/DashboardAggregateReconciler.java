@@ -0,0 +1,40 @@
+package com.pixelpro.dashboard.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reconciliación periódica de los agregados del dashboard.
+ * Corrige cualquier desvío de las actualizaciones incrementales (p. ej. si la aplicación cae
+ * entre el commit de una orden y la actualización del agregado) y los puebla en el primer arranque.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardAggregateReconciler {
+
+    private final DashboardAggregateService dashboardAggregateService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIfEmpty() {
+        if (dashboardAggregateService.isEmpty()) {
+            log.info("Agregados del dashboard vacíos, calculando desde las órdenes");
+            reconcile();
+        }
+    }
+
+    @Scheduled(cron = "${app.dashboard.reconcile-cron:0 0 3 * * *}")
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        try {
+            dashboardAggregateService.rebuild();
+            log.info("Agregados del dashboard reconciliados en {} ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Error reconciliando agregados del dashboard", e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.pixelpro.dashboard.service;
+
+import com.pixelpro.dashboard.config.DashboardConfig;
+import com.pixelpro.dashboard.repository.DailySalesRepository;
+import com.pixelpro.dashboard.repository.OrderAggregateStateRepository;
+import com.pixelpro.dashboard.repository.OrderStatusTotalsRepository;
+import com.pixelpro.dashboard.repository.ProductSalesRepository;
+import com.pixelpro.orders.entity.OrderEntity;
+import com.pixelpro.orders.entity.OrderItemEntity;
+import com.pixelpro.orders.entity.enums.OrderStatus;
+import com.pixelpro.orders.event.OrderStatusChangedEvent;
+import com.pixelpro.orders.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Mantiene las tablas de agregados del dashboard (ventas por día, por producto y órdenes por estado).
+ * Se actualizan de forma incremental con cada alta o cambio de estado de una orden, y
+ * DashboardAggregateReconciler las recalcula periódicamente desde las órdenes para corregir desvíos.
+ * <p>
+ * dashboard_order_state guarda el estado con el que cada orden figura en los agregados. Un cambio solo se
+ * aplica si parte de ese estado, y la reconciliación lo reescribe con la misma foto de las órdenes que usa
+ * para recalcular: un cambio que ya entró en esa foto pero cuya actualización llega después se descarta
+ * en vez de contarse dos veces. Ambos caminos se serializan con un bloqueo sobre esa tabla.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardAggregateService {
+
+    /**
+     * Estados de orden que se consideran como "ventas confirmadas/pagadas".
+     * Excluye PENDIENTE (no pagada) y CANCELADO (anulada).
+     */
+    public static final List<OrderStatus> REVENUE_STATUSES = List.of(
+            OrderStatus.CONFIRMADO,
+            OrderStatus.PREPARANDO,
+            OrderStatus.ENVIADO,
+            OrderStatus.ENTREGADO
+    );
+
+    private final OrderRepository orderRepository;
+    private final DailySalesRepository dailySalesRepository;
+    private final ProductSalesRepository productSalesRepository;
+    private final OrderStatusTotalsRepository orderStatusTotalsRepository;
+    private final OrderAggregateStateRepository orderAggregateStateRepository;
+
+    /**
+     * Aplica el cambio de estado a los agregados una vez confirmada la transacción de la orden.
+     * Corre en su propia transacción corta para no alargar los bloqueos del checkout, y en el hilo
+     * de agregados: en AFTER_COMMIT la transacción de la orden todavía retiene su conexión, así que
+     * abrir aquí otra en el mismo hilo (REQUIRES_NEW) agotaba el pool con muchos checkouts a la vez
+     * (cada hilo con una conexión esperando una segunda).
+     */
+    @Async(DashboardConfig.AGGREGATE_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.previousStatus() == event.newStatus()) {
+            return;
+        }
+
+        // Espera a una reconciliación en curso; después, solo se aplica si los agregados tienen
+        // la orden en el estado anterior (si no, la reconciliación ya contó este cambio)
+        orderAggregateStateRepository.lockForUpdate();
+        int applied = event.previousStatus() == null
+                ? orderAggregateStateRepository.insertIfAbsent(event.orderId(), event.newStatus().name())
+                : orderAggregateStateRepository.transition(
+                        event.orderId(), event.previousStatus().name(), event.newStatus().name());
+        if (applied == 0) {
+            log.debug("Cambio {} -> {} de la orden {} ya reflejado en los agregados",
+                    event.previousStatus(), event.newStatus(), event.orderId());
+            return;
+        }
+
+        OrderEntity order = orderRepository.findById(event.orderId()).orElse(null);
+        if (order == null) {
+            log.warn("Orden {} no encontrada al actualizar agregados del dashboard", event.orderId());
+            return;
+        }
+
+        BigDecimal total = order.getTotal();
+
+        // 1. Contadores por estado: se mueve la orden del estado anterior al nuevo
+        if (event.previousStatus() != null) {
+            orderStatusTotalsRepository.addOrders(event.previousStatus().name(), -1, total.negate());
+        }
+        orderStatusTotalsRepository.addOrders(event.newStatus().name(), 1, total);
+
+        // 2. Ventas: solo cambian cuando la orden entra o sale del conjunto de estados pagados
+        boolean wasRevenue = event.previousStatus() != null && REVENUE_STATUSES.contains(event.previousStatus());
+        boolean isRevenue = REVENUE_STATUSES.contains(event.newStatus());
+        if (wasRevenue == isRevenue) {
+            return;
+        }
+
+        int sign = isRevenue ? 1 : -1;
+        BigDecimal signedTotal = isRevenue ? total : total.negate();
+        dailySalesRepository.addSales(order.getCreatedAt().toLocalDate(), sign, signedTotal);
+
+        for (OrderItemEntity item : order.getItems()) {
+            BigDecimal amount = item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
+            productSalesRepository.addSales(
+                    item.getProduct().getId(),
+                    (long) sign * item.getQuantity(),
+                    isRevenue ? amount : amount.negate());
+        }
+    }
+
+    /**
+     * Recalcula todos los agregados desde las órdenes (reconciliación completa).
+     * REPEATABLE READ: todas las sentencias ven la misma foto de las órdenes, tomada después del bloqueo.
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void rebuild() {
+        List<String> statuses = REVENUE_STATUSES.stream().map(Enum::name).toList();
+
+        orderAggregateStateRepository.lockForRebuild();
+        orderAggregateStateRepository.deleteAllRows();
+        orderAggregateStateRepository.rebuildFromOrders();
+
+        orderStatusTotalsRepository.deleteAllRows();
+        orderStatusTotalsRepository.rebuildFromOrders();
+
+        dailySalesRepository.deleteAllRows();
+        dailySalesRepository.rebuildFromOrders(statuses);
+
+        productSalesRepository.deleteAllRows();
+        productSalesRepository.rebuildFromOrders(statuses);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isEmpty() {
+        return orderStatusTotalsRepository.count() == 0;
+    }
+}
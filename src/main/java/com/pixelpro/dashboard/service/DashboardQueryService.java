@@ -0,0 +1,185 @@
+package com.pixelpro.dashboard.service;
+
+import com.pixelpro.catalog.repository.ProductRepository;
+import com.pixelpro.customers.repository.CustomerRepository;
+import com.pixelpro.dashboard.dto.ChartDataPointDto;
+import com.pixelpro.dashboard.dto.TopProductDto;
+import com.pixelpro.dashboard.entity.DailySalesEntity;
+import com.pixelpro.dashboard.entity.OrderStatusTotalsEntity;
+import com.pixelpro.dashboard.projection.TopProductProjection;
+import com.pixelpro.dashboard.repository.DailySalesRepository;
+import com.pixelpro.dashboard.repository.OrderStatusTotalsRepository;
+import com.pixelpro.dashboard.repository.ProductSalesRepository;
+import com.pixelpro.orders.dto.OrderDto;
+import com.pixelpro.orders.entity.enums.OrderStatus;
+import com.pixelpro.orders.mapper.OrderMapper;
+import com.pixelpro.orders.repository.OrderRepository;
+import com.pixelpro.orders.service.OrderDetailsLoader;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consultas independientes del dashboard. Cada método corre en su propia transacción
+ * de solo lectura para que DashboardServiceImpl pueda ejecutarlos en paralelo.
+ * La transacción tiene el mismo timeout que el dashboard (app.dashboard.query-timeout): JPA lo aplica
+ * como timeout de cada sentencia y PostgreSQL la cancela, así una consulta que el dashboard ya dio por
+ * perdida no sigue ocupando la conexión (cancelar el Future no interrumpe el JDBC).
+ */
+@Service
+@RequiredArgsConstructor
+public class DashboardQueryService {
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final CustomerRepository customerRepository;
+    private final OrderMapper orderMapper;
+    private final OrderDetailsLoader orderDetailsLoader;
+    private final OrderStatusTotalsRepository orderStatusTotalsRepository;
+    private final DailySalesRepository dailySalesRepository;
+    private final ProductSalesRepository productSalesRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.dashboard.query-timeout:3s}")
+    private Duration queryTimeout;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private static final DateTimeFormatter CHART_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM");
+    private static final int CHART_DAYS = 14;
+    private static final int TOP_PRODUCTS_LIMIT = 5;
+    private static final int LATEST_ORDERS_LIMIT = 5;
+
+    /**
+     * Contadores de órdenes e ingresos totales
+     */
+    public record OrderCounters(long totalOrders, long pendingOrders, long completedOrders, BigDecimal totalRevenue) {}
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        // El timeout de transacción va en segundos enteros: se redondea hacia arriba
+        readOnlyTransaction.setTimeout((int) Math.max(1, (queryTimeout.toMillis() + 999) / 1000));
+    }
+
+    /**
+     * Contadores por estado e ingresos, desde la tabla de agregados (una fila por estado)
+     */
+    public OrderCounters getOrderCounters() {
+        return readOnlyTransaction.execute(status -> {
+            long totalOrders = 0;
+            long pendingOrders = 0;
+            long completedOrders = 0;
+            BigDecimal totalRevenue = BigDecimal.ZERO;
+            for (OrderStatusTotalsEntity totals : orderStatusTotalsRepository.findAll()) {
+                totalOrders += totals.getOrderCount();
+                if (totals.getStatus() == OrderStatus.PENDIENTE) {
+                    pendingOrders = totals.getOrderCount();
+                } else if (totals.getStatus() == OrderStatus.ENTREGADO) {
+                    completedOrders = totals.getOrderCount();
+                }
+                // Ingresos totales (órdenes confirmadas, preparando, enviadas y entregadas)
+                if (DashboardAggregateService.REVENUE_STATUSES.contains(totals.getStatus())) {
+                    totalRevenue = totalRevenue.add(totals.getRevenue());
+                }
+            }
+            return new OrderCounters(totalOrders, pendingOrders, completedOrders, totalRevenue);
+        });
+    }
+
+    public long countProducts() {
+        return readOnlyTransaction.execute(status -> productRepository.count());
+    }
+
+    public long countCustomers() {
+        return readOnlyTransaction.execute(status -> customerRepository.count());
+    }
+
+    /**
+     * Obtiene los datos del gráfico de ventas para los últimos N días
+     * Rellena con ceros los días sin ventas
+     */
+    public List<ChartDataPointDto> getSalesChartData() {
+        return readOnlyTransaction.execute(status -> {
+            LocalDate end = LocalDate.now();
+            LocalDate start = end.minusDays(CHART_DAYS - 1);
+
+            // Ventas por día desde la tabla de agregados (a lo sumo CHART_DAYS filas)
+            Map<LocalDate, BigDecimal> salesMap = new HashMap<>();
+            for (DailySalesEntity day : dailySalesRepository.findBySalesDateBetween(start, end)) {
+                salesMap.put(day.getSalesDate(), day.getRevenue());
+            }
+
+            // Generar lista completa de los últimos N días (rellenando vacíos con 0)
+            List<ChartDataPointDto> chartData = new ArrayList<>();
+            LocalDate currentDate = start;
+
+            while (!currentDate.isAfter(end)) {
+                String label = currentDate.format(CHART_DATE_FORMATTER);
+                BigDecimal value = salesMap.getOrDefault(currentDate, BigDecimal.ZERO);
+                chartData.add(new ChartDataPointDto(label, value));
+                currentDate = currentDate.plusDays(1);
+            }
+
+            return chartData;
+        });
+    }
+
+    /**
+     * Obtiene los N productos más vendidos (basado en cantidad)
+     * Considera todas las órdenes pagadas/confirmadas (tabla de agregados)
+     */
+    public List<TopProductDto> getTopProducts() {
+        return readOnlyTransaction.execute(status -> {
+            List<TopProductProjection> projections = productSalesRepository.findTopSelling(
+                    PageRequest.of(0, TOP_PRODUCTS_LIMIT)
+            );
+
+            return projections.stream()
+                    .map(p -> new TopProductDto(
+                            p.getProductId(),
+                            p.getProductName(),
+                            p.getQtySold(),
+                            p.getRevenue() != null ? p.getRevenue() : BigDecimal.ZERO
+                    ))
+                    .toList();
+        });
+    }
+
+    /**
+     * Obtiene las últimas N órdenes creadas en el sistema
+     * Ordena por fecha de creación descendente
+     */
+    public List<OrderDto> getLatestOrders() {
+        return readOnlyTransaction.execute(status -> {
+            PageRequest pageRequest = PageRequest.of(
+                    0,
+                    LATEST_ORDERS_LIMIT,
+                    Sort.by(Sort.Direction.DESC, "createdAt")
+            );
+
+            Page<Long> orderIds = orderRepository.findIdsWithFilters(null, null, null, pageRequest);
+
+            // Carga por lotes de las relaciones (evita una consulta por cada relación lazy)
+            return orderDetailsLoader.loadWithDetails(orderIds.getContent()).stream()
+                    .map(orderMapper::toDto)
+                    .toList();
+        });
+    }
+}
@@ -1,209 +1,120 @@
 package com.pixelpro.dashboard.service;
 
-import com.pixelpro.catalog.repository.ProductRepository;
-import com.pixelpro.customers.repository.CustomerRepository;
+import com.pixelpro.dashboard.config.DashboardConfig;
 import com.pixelpro.dashboard.dto.ChartDataPointDto;
 import com.pixelpro.dashboard.dto.DashboardStatsDto;
 import com.pixelpro.dashboard.dto.TopProductDto;
-import com.pixelpro.dashboard.projection.TopProductProjection;
 import com.pixelpro.orders.dto.OrderDto;
-import com.pixelpro.orders.entity.OrderEntity;
-import com.pixelpro.orders.entity.enums.OrderStatus;
-import com.pixelpro.orders.mapper.OrderMapper;
-import com.pixelpro.orders.repository.OrderItemRepository;
-import com.pixelpro.orders.repository.OrderRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Service
-@RequiredArgsConstructor
-@Transactional(readOnly = true)
 @Slf4j
 public class DashboardServiceImpl implements DashboardService {
 
-    private final OrderRepository orderRepository;
-    private final OrderItemRepository orderItemRepository;
-    private final ProductRepository productRepository;
-    private final CustomerRepository customerRepository;
-    private final OrderMapper orderMapper;
+    private final DashboardQueryService dashboardQueryService;
+    private final Executor dashboardExecutor;
 
-    private static final DateTimeFormatter CHART_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM");
-    private static final int CHART_DAYS = 14;
-    private static final int TOP_PRODUCTS_LIMIT = 5;
-    private static final int LATEST_ORDERS_LIMIT = 5;
+    @Value("${app.dashboard.query-timeout:3s}")
+    private Duration queryTimeout;
+
+    public DashboardServiceImpl(DashboardQueryService dashboardQueryService,
+                                @Qualifier(DashboardConfig.DASHBOARD_EXECUTOR) Executor dashboardExecutor) {
+        this.dashboardQueryService = dashboardQueryService;
+        this.dashboardExecutor = dashboardExecutor;
+    }
 
     /**
-     * Estados de orden que se consideran como "ventas confirmadas/pagadas".
-     * Excluye PENDIENTE (no pagada) y CANCELADO (anulada).
+     * Lanza las consultas independientes en paralelo (cada una con su propia conexión de solo lectura)
+     * y espera como máximo el timeout configurado. Si alguna no termina a tiempo o falla,
+     * se devuelven las estadísticas parciales con partial = true.
      */
-    private static final List<OrderStatus> REVENUE_STATUSES = List.of(
-            OrderStatus.CONFIRMADO,
-            OrderStatus.PREPARANDO,
-            OrderStatus.ENVIADO,
-            OrderStatus.ENTREGADO
-    );
-
     @Override
+    @Timed(value = "pixelpro.dashboard.stats", description = "Cálculo de las estadísticas del dashboard", histogram = true)
     public DashboardStatsDto getStats() {
         log.info("Calculando estadísticas del dashboard");
-
-        // 1. Contadores simples
-        Long totalOrders = orderRepository.count();
-        Long pendingOrders = orderRepository.countByStatus(OrderStatus.PENDIENTE);
-        Long completedOrders = orderRepository.countByStatus(OrderStatus.ENTREGADO);
-        Long totalProducts = productRepository.count();
-        Long totalCustomers = customerRepository.count();
-
-        // 2. Ingresos totales (órdenes confirmadas, preparando, enviadas y entregadas)
-        BigDecimal totalRevenue = orderRepository.sumTotalByStatuses(REVENUE_STATUSES);
-        // COALESCE en la query garantiza que nunca sea null, pero por seguridad:
-        if (totalRevenue == null) {
-            totalRevenue = BigDecimal.ZERO;
+        long deadline = System.nanoTime() + queryTimeout.toNanos();
+
+        // 1. Fan-out
+        CompletableFuture<DashboardQueryService.OrderCounters> countersFuture = submit(dashboardQueryService::getOrderCounters);
+        CompletableFuture<Long> productsFuture = submit(dashboardQueryService::countProducts);
+        CompletableFuture<Long> customersFuture = submit(dashboardQueryService::countCustomers);
+        CompletableFuture<List<ChartDataPointDto>> chartFuture = submit(dashboardQueryService::getSalesChartData);
+        CompletableFuture<List<TopProductDto>> topProductsFuture = submit(dashboardQueryService::getTopProducts);
+        CompletableFuture<List<OrderDto>> latestOrdersFuture = submit(dashboardQueryService::getLatestOrders);
+
+        // 2. Join con un único deadline para todas las consultas
+        PartialResult partial = new PartialResult();
+        DashboardQueryService.OrderCounters counters = partial.await("contadores", countersFuture, deadline, null);
+        Long totalProducts = partial.await("productos", productsFuture, deadline, null);
+        Long totalCustomers = partial.await("clientes", customersFuture, deadline, null);
+        List<ChartDataPointDto> salesChartData = partial.await("gráfico de ventas", chartFuture, deadline, List.of());
+        List<TopProductDto> topProducts = partial.await("top productos", topProductsFuture, deadline, List.of());
+        List<OrderDto> latestOrders = partial.await("últimas órdenes", latestOrdersFuture, deadline, List.of());
+
+        if (partial.incomplete) {
+            log.warn("Estadísticas del dashboard incompletas (timeout {} o error en alguna consulta)", queryTimeout);
+        } else {
+            log.info("Estadísticas calculadas: {} órdenes, {} clientes, ingresos: {}",
+                    counters.totalOrders(), totalCustomers, counters.totalRevenue());
         }
 
-        // 3. Datos para el gráfico de ventas (últimos 14 días)
-        List<ChartDataPointDto> salesChartData = getSalesChartData();
-
-        // 4. Top 5 productos más vendidos
-        List<TopProductDto> topProducts = getTopProducts();
-
-        // 5. Últimas 5 órdenes
-        List<OrderDto> latestOrders = getLatestOrders();
-
-        log.info("Estadísticas calculadas: {} órdenes, {} clientes, ingresos: {}",
-                totalOrders, totalCustomers, totalRevenue);
-
         return new DashboardStatsDto(
-                totalOrders,
-                pendingOrders,
-                completedOrders,
-                totalRevenue,
+                counters != null ? counters.totalOrders() : null,
+                counters != null ? counters.pendingOrders() : null,
+                counters != null ? counters.completedOrders() : null,
+                counters != null ? counters.totalRevenue() : null,
                 totalProducts,
                 totalCustomers,
                 salesChartData,
                 topProducts,
-                latestOrders
+                latestOrders,
+                partial.incomplete
         );
     }
 
-    /**
-     * Obtiene los datos del gráfico de ventas para los últimos N días
-     * Rellena con ceros los días sin ventas
-     */
-    private List<ChartDataPointDto> getSalesChartData() {
-        LocalDateTime endDate = LocalDateTime.now();
-        LocalDateTime startDate = endDate.minusDays(CHART_DAYS - 1).withHour(0).withMinute(0).withSecond(0);
-
-        // Obtener ventas desde la BD (todas las órdenes pagadas/confirmadas)
-        List<Object[]> salesData = orderRepository.getSalesByDateRange(
-                REVENUE_STATUSES,
-                startDate,
-                endDate
-        );
-
-        // Crear un mapa para acceso rápido por fecha
-        Map<LocalDate, BigDecimal> salesMap = new HashMap<>();
-        for (Object[] row : salesData) {
-            LocalDate date = (LocalDate) row[0];
-            BigDecimal total = (BigDecimal) row[1]; // JPA SUM() retorna BigDecimal
-            salesMap.put(date, total != null ? total : BigDecimal.ZERO);
+    private <T> CompletableFuture<T> submit(Supplier<T> query) {
+        try {
+            return CompletableFuture.supplyAsync(query, dashboardExecutor);
+        } catch (RuntimeException e) {
+            // Pool saturado: la consulta se reporta como faltante
+            return CompletableFuture.failedFuture(e);
         }
-
-        // Generar lista completa de los últimos N días (rellenando vacíos con 0)
-        List<ChartDataPointDto> chartData = new ArrayList<>();
-        LocalDate currentDate = startDate.toLocalDate();
-        LocalDate end = endDate.toLocalDate();
-
-        while (!currentDate.isAfter(end)) {
-            String label = currentDate.format(CHART_DATE_FORMATTER);
-            BigDecimal value = salesMap.getOrDefault(currentDate, BigDecimal.ZERO);
-            chartData.add(new ChartDataPointDto(label, value));
-            currentDate = currentDate.plusDays(1);
-        }
-
-        return chartData;
     }
 
     /**
-     * Obtiene los N productos más vendidos (basado en cantidad)
-     * Considera todas las órdenes pagadas/confirmadas
+     * Acumula si alguna consulta no pudo completarse
      */
-    private List<TopProductDto> getTopProducts() {
-        List<TopProductProjection> projections = orderItemRepository.findTopSellingProducts(
-                REVENUE_STATUSES,
-                PageRequest.of(0, TOP_PRODUCTS_LIMIT)
-        );
-
-        return projections.stream()
-                .map(p -> new TopProductDto(
-                        p.getProductId(),
-                        p.getProductName(),
-                        p.getQtySold(),
-                        p.getRevenue() != null ? p.getRevenue() : BigDecimal.ZERO
-                ))
-                .toList();
-    }
-
-    /**
-     * Obtiene las últimas N órdenes creadas en el sistema
-     * Ordena por fecha de creación descendente
-     */
-    private List<OrderDto> getLatestOrders() {
-        PageRequest pageRequest = PageRequest.of(
-                0,
-                LATEST_ORDERS_LIMIT,
-                Sort.by(Sort.Direction.DESC, "createdAt")
-        );
-
-        Page<OrderEntity> ordersPage = orderRepository.findAll(pageRequest);
-
-        return ordersPage.getContent().stream()
-                .map(entity -> {
-                    // Forzar la carga de colecciones lazy para evitar LazyInitializationException
-                    forceLoadLazyCollections(entity);
-                    return orderMapper.toDto(entity);
-                })
-                .toList();
-    }
-
-    /**
-     * Método helper para inicializar los Proxies de Hibernate
-     * Evita LazyInitializationException al acceder a relaciones lazy fuera del contexto transaccional
-     */
-    private void forceLoadLazyCollections(OrderEntity entity) {
-        if (entity.getCustomer() != null) {
-            entity.getCustomer().getFirstName();
-        }
-        if (entity.getShippingAddress() != null) {
-            entity.getShippingAddress().getAddressLine();
-        }
-        if (entity.getItems() != null) {
-            entity.getItems().forEach(item -> {
-                if (item.getProduct() != null) {
-                    item.getProduct().getName();
-                }
-            });
-        }
-        if (entity.getInvoice() != null) {
-            entity.getInvoice().getSerie();
-        }
-        if (entity.getPayments() != null) {
-            entity.getPayments().forEach(payment -> payment.getAmount());
+    private static class PartialResult {
+        private boolean incomplete;
+
+        <T> T await(String name, CompletableFuture<T> future, long deadline, T fallback) {
+            long remaining = deadline - System.nanoTime();
+            try {
+                return future.get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                log.warn("Consulta del dashboard '{}' excedió el timeout", name);
+                // No detiene la consulta en curso: la corta el timeout de su transacción (DashboardQueryService)
+                future.cancel(true);
+            } catch (ExecutionException e) {
+                log.error("Error en la consulta del dashboard '{}'", name, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            incomplete = true;
+            return fallback;
         }
     }
 }
-
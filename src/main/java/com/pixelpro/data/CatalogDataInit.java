@@ -12,9 +12,11 @@ import org.springframework.stereotype.Component;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 
@@ -61,6 +63,7 @@ public class CatalogDataInit implements CommandLineRunner {
                 .collect(Collectors.toMap(CategoryEntity::getName, c -> c));
 
         List<ProductEntity> products = new ArrayList<>();
+        Set<String> usedSkus = new HashSet<>();
         Random random = new Random();
 
         // Estructura de datos
@@ -126,7 +129,7 @@ public class CatalogDataInit implements CommandLineRunner {
             }
 
             for (String fileNameBase : fileNames) {
-                String sku = generateSku(categoryName, fileNameBase);
+                String sku = generateSku(categoryName, fileNameBase, usedSkus);
                 String name = formatProductName(fileNameBase, categoryName);
                 String imageUrl = generateImageUrl(categoryName, fileNameBase);
                 BigDecimal price = generatePrice(categoryName, random);
@@ -211,10 +214,15 @@ public class CatalogDataInit implements CommandLineRunner {
         }
     }
 
-    private String generateSku(String category, String filename) {
+    private String generateSku(String category, String filename, Set<String> usedSkus) {
         String prefix = category.substring(0, 3).toUpperCase();
         String modelCode = filename.substring(0, Math.min(filename.length(), 4)).toUpperCase();
-        return String.format("%s-%s-%03d", prefix, modelCode, new Random().nextInt(999));
+        // Varios archivos comparten prefijo: repetir el sufijo hasta que no choque (sku es único en BD)
+        String sku;
+        do {
+            sku = String.format("%s-%s-%03d", prefix, modelCode, new Random().nextInt(999));
+        } while (!usedSkus.add(sku));
+        return sku;
     }
 
     private String generateImageUrl(String category, String fileNameBase) {
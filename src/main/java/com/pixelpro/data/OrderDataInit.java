@@ -18,6 +18,7 @@ import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,8 +34,9 @@ public class OrderDataInit implements CommandLineRunner {
     private final OrderRepository orderRepository;
     private final CustomerRepository customerRepository;
     private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
 
-    // Inyectamos EntityManager para manipular la BD directamente y saltarnos el Auditing
+    // EntityManager para forzar el flush antes de corregir las fechas (saltándonos el Auditing)
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -54,24 +56,41 @@ public class OrderDataInit implements CommandLineRunner {
         if (customers.isEmpty() || products.isEmpty()) return;
 
         Random random = new Random();
-        int totalOrders = 0;
+        List<HistoricalOrder> historicalOrders = new ArrayList<>();
+        long start = System.nanoTime();
 
-        // Procesamos una por una para poder aplicar el "hack" de fechas inmediatamente
         for (CustomerEntity customer : customers) {
             // Entre 1 y 3 órdenes por cliente para variedad
             int ordersCount = random.nextInt(3) + 1;
 
             for (int i = 0; i < ordersCount; i++) {
                 int scenario = random.nextInt(10);
-                createAndHackOrder(customer, products, random, scenario);
-                totalOrders++;
+                historicalOrders.add(buildOrder(customer, products, random, scenario));
             }
         }
 
-        System.out.println("✅ Carga completa: " + totalOrders + " órdenes creadas con fechas distribuidas.");
+        // --- 3. PERSISTENCIA EN LOTE ---
+        // Con IDs por secuencia (pooled) y hibernate.jdbc.batch_size, los INSERT de órdenes,
+        // items, pagos y facturas se envían en lotes en un único flush
+        orderRepository.saveAll(historicalOrders.stream().map(HistoricalOrder::order).toList());
+        entityManager.flush();
+
+        // --- 4. HACK DE FECHAS (TIME TRAVEL) ---
+        // @CreatedDate puso created_at = HOY; se sobrescribe con UPDATEs por lotes
+        int rows = backdate(historicalOrders);
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.printf("✅ Carga completa: %d órdenes creadas con fechas distribuidas (%d filas, %.0f filas/s).%n",
+                historicalOrders.size(), rows, rows / Math.max(seconds, 0.001));
+    }
+
+    /**
+     * Orden histórica pendiente de persistir junto con la fecha retroactiva que debe quedar en BD
+     */
+    private record HistoricalOrder(OrderEntity order, LocalDateTime date) {
     }
 
-    private void createAndHackOrder(CustomerEntity customer, List<ProductEntity> products, Random random, int scenario) {
+    private HistoricalOrder buildOrder(CustomerEntity customer, List<ProductEntity> products, Random random, int scenario) {
         // --- 1. GENERACIÓN DE FECHA RETROACTIVA ---
         // Generamos una fecha aleatoria dentro de los últimos 14 días
         int daysAgo = random.nextInt(14);
@@ -119,7 +138,7 @@ public class OrderDataInit implements CommandLineRunner {
                 .shippingCost(shippingCost)
                 .discount(BigDecimal.ZERO)
                 .build();
-        // Nota: order.setCreatedAt(date) sería ignorado por JPA aquí, por eso usamos el hack más abajo.
+        // Nota: order.setCreatedAt(date) sería ignorado por JPA aquí, por eso usamos el hack en backdate().
 
         // 2.2 Items
         List<OrderItemEntity> items = new ArrayList<>();
@@ -178,32 +197,38 @@ public class OrderDataInit implements CommandLineRunner {
             order.setInvoice(invoice);
         }
 
-        // --- 3. PERSISTENCIA Y HACK DE FECHAS (TIME TRAVEL) ---
-
-        // A. Guardar con JPA (Pondrá created_at = HOY por el @CreatedDate)
-        orderRepository.save(order);
-
-        // B. UPDATE Nativo para sobrescribir la fecha en la tabla 'orders'
-        entityManager.createNativeQuery("UPDATE orders SET created_at = :date WHERE id = :id")
-                .setParameter("date", date)
-                .setParameter("id", order.getId())
-                .executeUpdate();
+        return new HistoricalOrder(order, date);
+    }
 
-        // C. UPDATE Nativo para sobrescribir la fecha en 'invoices' (si existe)
-        if (order.getInvoice() != null) {
-            entityManager.createNativeQuery("UPDATE invoices SET created_at = :date WHERE id = :id")
-                    .setParameter("date", date)
-                    .setParameter("id", order.getInvoice().getId())
-                    .executeUpdate();
+    /**
+     * Sobrescribe created_at de órdenes, facturas y pagos con su fecha histórica.
+     *
+     * @return filas insertadas (órdenes, items, pagos y facturas)
+     */
+    private int backdate(List<HistoricalOrder> historicalOrders) {
+        List<Object[]> orderDates = new ArrayList<>();
+        List<Object[]> invoiceDates = new ArrayList<>();
+        List<Object[]> paymentDates = new ArrayList<>();
+        int items = 0;
+
+        for (HistoricalOrder historical : historicalOrders) {
+            OrderEntity order = historical.order();
+            LocalDateTime date = historical.date();
+            orderDates.add(new Object[]{date, order.getId()});
+            if (order.getInvoice() != null) {
+                invoiceDates.add(new Object[]{date, order.getInvoice().getId()});
+            }
+            for (PaymentEntity p : order.getPayments()) {
+                paymentDates.add(new Object[]{date, p.getId()});
+            }
+            items += order.getItems().size();
         }
 
-        // D. UPDATE Nativo para sobrescribir la fecha en 'payments'
-        for (PaymentEntity p : order.getPayments()) {
-            entityManager.createNativeQuery("UPDATE payments SET created_at = :date WHERE id = :id")
-                    .setParameter("date", date)
-                    .setParameter("id", p.getId())
-                    .executeUpdate();
-        }
+        jdbcTemplate.batchUpdate("UPDATE orders SET created_at = ? WHERE id = ?", orderDates);
+        jdbcTemplate.batchUpdate("UPDATE invoices SET created_at = ? WHERE id = ?", invoiceDates);
+        jdbcTemplate.batchUpdate("UPDATE payments SET created_at = ? WHERE id = ?", paymentDates);
+
+        return orderDates.size() + items + invoiceDates.size() + paymentDates.size();
     }
 
     private OrderStatus getRandomSuccessStatus(Random random) {
@@ -1,7 +1,9 @@
 package com.pixelpro.orders.controller.admin;
 
+import com.pixelpro.common.dto.CursorPageDto;
 import com.pixelpro.orders.dto.OrderDto;
 import com.pixelpro.orders.dto.OrderStatusUpdateDto;
+import com.pixelpro.orders.dto.OrderSummaryDto;
 import com.pixelpro.orders.entity.enums.DeliveryType;
 import com.pixelpro.orders.entity.enums.OrderStatus;
 import com.pixelpro.orders.service.OrderService;
@@ -27,13 +29,17 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Admin - Órdenes", description = "Gestión de órdenes del panel de administración")
 public class AdminOrderController {
 
+    private static final int MAX_SCROLL_SIZE = 100;
+
     private final OrderService orderService;
 
     @Operation(
             summary = "Listar todas las órdenes con filtros",
             description = "Obtiene un listado paginado de órdenes con capacidad de búsqueda y filtrado combinado. " +
                     "Permite buscar por código de orden, nombre o apellido del cliente (búsqueda global), " +
-                    "y filtrar específicamente por estado de la orden y tipo de entrega."
+                    "y filtrar específicamente por estado de la orden y tipo de entrega. " +
+                    "Devuelve el resumen de cada orden (código, estado, tipo de entrega, cliente, total, cantidad de items " +
+                    "y fecha de creación); para ver items, pagos y factura usar el detalle por ID."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -43,7 +49,7 @@ public class AdminOrderController {
             )
     })
     @GetMapping
-    public ResponseEntity<Page<OrderDto>> getAllOrders(
+    public ResponseEntity<Page<OrderSummaryDto>> getAllOrders(
             @Parameter(
                     description = "Término de búsqueda global: código de orden, nombre o apellido del cliente",
                     example = "ORD-2025-00001"
@@ -69,10 +75,41 @@ public class AdminOrderController {
             @PageableDefault(sort = "updatedAt", direction = Sort.Direction.DESC)
             Pageable pageable
     ) {
-        Page<OrderDto> orders = orderService.getAllOrders(search, status, deliveryType, pageable);
+        Page<OrderSummaryDto> orders = orderService.getOrderSummaries(search, status, deliveryType, pageable);
         return ResponseEntity.ok(orders);
     }
 
+    @Operation(
+            summary = "Listar resumen de órdenes por cursor",
+            description = "Variante del resumen con paginación por cursor, ordenada por fecha de creación descendente. " +
+                    "Cada página cuesta lo mismo sin importar su profundidad y no ejecuta COUNT: el total devuelto es " +
+                    "aproximado (estadísticas de la tabla o conteo cacheado). Enviar el nextCursor para la página siguiente."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Página de órdenes obtenida exitosamente",
+                    content = @Content(schema = @Schema(implementation = CursorPageDto.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content)
+    })
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDto<OrderSummaryDto>> scrollOrderSummaries(
+            @Parameter(description = "Término de búsqueda global: código de orden, nombre, apellido o email del cliente")
+            @RequestParam(required = false) String search,
+            @Parameter(description = "Filtrar por estado específico de la orden", example = "CONFIRMADO")
+            @RequestParam(required = false) OrderStatus status,
+            @Parameter(description = "Filtrar por tipo de entrega", example = "A_DOMICILIO")
+            @RequestParam(required = false) DeliveryType deliveryType,
+            @Parameter(description = "Cursor devuelto por la página anterior (vacío para la primera página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo " + MAX_SCROLL_SIZE + ")")
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_SCROLL_SIZE);
+        return ResponseEntity.ok(orderService.scrollOrderSummaries(search, status, deliveryType, cursor, pageSize));
+    }
+
     @Operation(
             summary = "Obtener orden por ID",
             description = "Obtiene los detalles completos de una orden específica incluyendo items, cliente, dirección, factura y pagos"
@@ -7,7 +7,7 @@ public record CheckoutResponseDto(
         @Schema(description = "ID de la orden creada", example = "123", requiredMode = Schema.RequiredMode.REQUIRED)
         Long orderId,
 
-        @Schema(description = "Código único de la orden", example = "ORD-1732819200000", requiredMode = Schema.RequiredMode.REQUIRED)
+        @Schema(description = "Código único de la orden", example = "ORD-2025-00001", requiredMode = Schema.RequiredMode.REQUIRED)
         String orderCode,
 
         @Schema(
@@ -0,0 +1,44 @@
+package com.pixelpro.orders.dto;
+
+import com.pixelpro.orders.entity.enums.DeliveryType;
+import com.pixelpro.orders.entity.enums.OrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Schema(description = "Resumen de una orden para listados (sin items, pagos ni factura)")
+public record OrderSummaryDto(
+        @Schema(description = "ID de la orden", example = "1")
+        Long id,
+
+        @Schema(description = "Código único de la orden", example = "ORD-2025-00001")
+        String code,
+
+        @Schema(description = "Estado de la orden", example = "PENDIENTE")
+        String status,
+
+        @Schema(description = "Tipo de entrega", example = "A_DOMICILIO")
+        String deliveryType,
+
+        @Schema(description = "Nombre completo del cliente", example = "Juan Pérez")
+        String customerName,
+
+        @Schema(description = "Total de la orden", example = "410.00")
+        BigDecimal total,
+
+        @Schema(description = "Cantidad de items (líneas) de la orden", example = "3")
+        Integer itemCount,
+
+        @Schema(description = "Fecha de creación")
+        LocalDateTime createdAt
+) {
+    /**
+     * Constructor usado por la expresión JPQL "SELECT new ..." del repository
+     */
+    public OrderSummaryDto(Long id, String code, OrderStatus status, DeliveryType deliveryType,
+                           String firstName, String lastName, BigDecimal total, Integer itemCount,
+                           LocalDateTime createdAt) {
+        this(id, code, status.name(), deliveryType.name(), firstName + " " + lastName, total, itemCount, createdAt);
+    }
+}
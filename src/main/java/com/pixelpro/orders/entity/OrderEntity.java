@@ -23,10 +23,21 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "orders")
+@Table(name = "orders",
+        indexes = {
+                // Paginación por cursor del panel admin (ORDER BY created_at DESC, id DESC)
+                @Index(name = "idx_orders_created_at_id", columnList = "created_at, id"),
+                // Filtro por estado y rango de fechas (getSalesByDateRange, contadores del dashboard)
+                @Index(name = "idx_orders_status_created_at", columnList = "status, created_at"),
+                // "Mis pedidos": órdenes de un cliente con estado opcional
+                @Index(name = "idx_orders_customer_status", columnList = "customer_id, status"),
+                // Orden por defecto del listado admin (updatedAt DESC)
+                @Index(name = "idx_orders_updated_at", columnList = "updated_at")
+        })
 public class OrderEntity extends AuditableEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -14,10 +14,16 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items",
+        indexes = {
+                @Index(name = "idx_order_items_order", columnList = "order_id"),
+                // Ranking de productos más vendidos
+                @Index(name = "idx_order_items_product", columnList = "product_id")
+        })
 public class OrderItemEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -0,0 +1,21 @@
+package com.pixelpro.orders.event;
+
+import com.pixelpro.orders.entity.enums.OrderStatus;
+
+/**
+ * Evento publicado cuando se crea una orden o cambia su estado.
+ *
+ * @param orderId        ID de la orden
+ * @param previousStatus Estado anterior. Null si la orden se acaba de crear.
+ * @param newStatus      Estado actual
+ */
+public record OrderStatusChangedEvent(Long orderId, OrderStatus previousStatus, OrderStatus newStatus) {
+
+    public static OrderStatusChangedEvent created(Long orderId, OrderStatus status) {
+        return new OrderStatusChangedEvent(orderId, null, status);
+    }
+
+    public static OrderStatusChangedEvent changed(Long orderId, OrderStatus previousStatus, OrderStatus newStatus) {
+        return new OrderStatusChangedEvent(orderId, previousStatus, newStatus);
+    }
+}
@@ -1,20 +1,41 @@
 package com.pixelpro.orders.repository;
 
+import com.pixelpro.orders.dto.OrderSummaryDto;
 import com.pixelpro.orders.entity.OrderEntity;
 import com.pixelpro.orders.entity.enums.DeliveryType;
 import com.pixelpro.orders.entity.enums.OrderStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
 
+    /**
+     * Orden con bloqueo de fila (SELECT ... FOR UPDATE) hasta el fin de la transacción.
+     * Serializa los cambios de estado que compiten por la misma orden (webhook de pago y compensación del checkout).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OrderEntity o WHERE o.id = :id")
+    Optional<OrderEntity> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Siguiente número del correlativo de códigos de orden (secuencia order_code_seq).
+     * Único entre instancias: no depende del reloj ni de la JVM.
+     */
+    @Query(value = "SELECT nextval('order_code_seq')", nativeQuery = true)
+    long nextOrderCodeNumber();
+
     /**
      * Busca órdenes con filtros combinados
      *
@@ -39,6 +60,116 @@ public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
             Pageable pageable
     );
 
+    /**
+     * Listado resumido de órdenes con los mismos filtros que {@link #findAllWithFilters}.
+     * Proyecta directamente a DTO en una sola consulta, sin hidratar entidades ni relaciones.
+     */
+    @Query(value = "SELECT new com.pixelpro.orders.dto.OrderSummaryDto(" +
+            " o.id, o.code, o.status, o.deliveryType, c.firstName, c.lastName, o.total, SIZE(o.items), o.createdAt) " +
+            "FROM OrderEntity o JOIN o.customer c WHERE " +
+            "(:search IS NULL OR :search = '' OR " +
+            " LOWER(o.code) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+            " LOWER(c.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+            " LOWER(c.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR" +
+            " LOWER(c.email) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+            "AND (:status IS NULL OR o.status = :status) " +
+            "AND (:deliveryType IS NULL OR o.deliveryType = :deliveryType)",
+            countQuery = "SELECT COUNT(o) FROM OrderEntity o JOIN o.customer c WHERE " +
+                    "(:search IS NULL OR :search = '' OR " +
+                    " LOWER(o.code) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+                    " LOWER(c.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+                    " LOWER(c.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR" +
+                    " LOWER(c.email) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+                    "AND (:status IS NULL OR o.status = :status) " +
+                    "AND (:deliveryType IS NULL OR o.deliveryType = :deliveryType)")
+    Page<OrderSummaryDto> findSummariesWithFilters(
+            @Param("search") String search,
+            @Param("status") OrderStatus status,
+            @Param("deliveryType") DeliveryType deliveryType,
+            Pageable pageable
+    );
+
+    /**
+     * Resumen de órdenes por cursor (keyset) ordenado por (createdAt, id) descendente.
+     * Continúa después de la última fila de la página anterior, así el coste no crece con la
+     * profundidad y no se ejecuta COUNT. El límite lo fija el Pageable (tamaño + 1).
+     * La comparación de filas (created_at, id) < (...) es un único rango en idx_orders_created_at_id.
+     */
+    @Query("SELECT new com.pixelpro.orders.dto.OrderSummaryDto(" +
+            " o.id, o.code, o.status, o.deliveryType, c.firstName, c.lastName, o.total, SIZE(o.items), o.createdAt) " +
+            "FROM OrderEntity o JOIN o.customer c WHERE " +
+            "(:search IS NULL OR :search = '' OR " +
+            " LOWER(o.code) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+            " LOWER(c.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+            " LOWER(c.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR" +
+            " LOWER(c.email) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+            "AND (:status IS NULL OR o.status = :status) " +
+            "AND (:deliveryType IS NULL OR o.deliveryType = :deliveryType) " +
+            "AND (:afterId IS NULL OR (o.createdAt, o.id) < (:afterCreatedAt, :afterId)) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummaryDto> findSummariesAfter(
+            @Param("search") String search,
+            @Param("status") OrderStatus status,
+            @Param("deliveryType") DeliveryType deliveryType,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") Long afterId,
+            Pageable limit
+    );
+
+    /**
+     * COUNT con los mismos filtros que {@link #findSummariesAfter}; se usa cacheado como total aproximado
+     */
+    @Query("SELECT COUNT(o) FROM OrderEntity o JOIN o.customer c WHERE " +
+            "(:search IS NULL OR :search = '' OR " +
+            " LOWER(o.code) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+            " LOWER(c.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+            " LOWER(c.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR" +
+            " LOWER(c.email) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+            "AND (:status IS NULL OR o.status = :status) " +
+            "AND (:deliveryType IS NULL OR o.deliveryType = :deliveryType)")
+    long countWithFilters(
+            @Param("search") String search,
+            @Param("status") OrderStatus status,
+            @Param("deliveryType") DeliveryType deliveryType
+    );
+
+    /**
+     * Igual que {@link #findAllWithFilters} pero solo devuelve los IDs de la página.
+     * Primera fase de la carga de listados: evita hidratar relaciones orden por orden.
+     */
+    @Query("SELECT o.id FROM OrderEntity o WHERE " +
+            "(:search IS NULL OR :search = '' OR " +
+            " LOWER(o.code) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+            " LOWER(o.customer.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+            " LOWER(o.customer.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR" +
+            " LOWER(o.customer.email) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+            "AND (:status IS NULL OR o.status = :status) " +
+            "AND (:deliveryType IS NULL OR o.deliveryType = :deliveryType)")
+    Page<Long> findIdsWithFilters(
+            @Param("search") String search,
+            @Param("status") OrderStatus status,
+            @Param("deliveryType") DeliveryType deliveryType,
+            Pageable pageable
+    );
+
+    /**
+     * Segunda fase: carga en una sola consulta las órdenes con cliente, dirección,
+     * factura e items (con su producto). Los pagos se cargan aparte para no
+     * combinar dos colecciones (bags) en el mismo fetch.
+     *
+     * @param ids IDs obtenidos en la primera fase
+     * @return Órdenes sin orden garantizado
+     */
+    @EntityGraph(attributePaths = {"customer", "shippingAddress", "invoice", "items", "items.product"})
+    @Query("SELECT DISTINCT o FROM OrderEntity o WHERE o.id IN :ids")
+    List<OrderEntity> findWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Inicializa la colección de pagos de las órdenes indicadas (ya presentes en el contexto de persistencia)
+     */
+    @Query("SELECT DISTINCT o FROM OrderEntity o LEFT JOIN FETCH o.payments WHERE o.id IN :ids")
+    List<OrderEntity> fetchPaymentsByIdIn(@Param("ids") Collection<Long> ids);
+
     // ==================== MÉTODOS PARA DASHBOARD ====================
 
     /**
@@ -94,4 +225,20 @@ public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
      * @return Página de órdenes del cliente con el estado especificado
      */
     Page<OrderEntity> findByCustomer_EmailAndStatus(String email, OrderStatus status, Pageable pageable);
+
+    /**
+     * IDs de las órdenes de un cliente (estado opcional). Primera fase del listado "Mis pedidos".
+     *
+     * @param email    Email del cliente
+     * @param status   Estado de la orden (puede ser null para no filtrar)
+     * @param pageable Configuración de paginación
+     * @return Página de IDs de órdenes del cliente
+     */
+    @Query("SELECT o.id FROM OrderEntity o " +
+            "WHERE o.customer.email = :email AND (:status IS NULL OR o.status = :status)")
+    Page<Long> findIdsByCustomerEmail(
+            @Param("email") String email,
+            @Param("status") OrderStatus status,
+            Pageable pageable
+    );
 }
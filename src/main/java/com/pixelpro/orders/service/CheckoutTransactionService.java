@@ -0,0 +1,326 @@
+package com.pixelpro.orders.service;
+
+import com.mercadopago.client.preference.PreferenceItemRequest;
+import com.pixelpro.billing.entity.PaymentEntity;
+import com.pixelpro.billing.entity.enums.CurrencyCode;
+import com.pixelpro.billing.entity.enums.PaymentMethod;
+import com.pixelpro.billing.entity.enums.PaymentStatus;
+import com.pixelpro.catalog.entity.ProductEntity;
+import com.pixelpro.catalog.event.CatalogChangedEvent;
+import com.pixelpro.catalog.repository.ProductRepository;
+import com.pixelpro.common.exception.ConflictException;
+import com.pixelpro.common.exception.ResourceNotFoundException;
+import com.pixelpro.customers.entity.AddressEntity;
+import com.pixelpro.customers.entity.CustomerEntity;
+import com.pixelpro.customers.repository.AddressRepository;
+import com.pixelpro.customers.repository.CustomerRepository;
+import com.pixelpro.orders.dto.CheckoutRequestDto;
+import com.pixelpro.orders.entity.OrderEntity;
+import com.pixelpro.orders.entity.OrderItemEntity;
+import com.pixelpro.orders.entity.enums.DeliveryType;
+import com.pixelpro.orders.entity.enums.OrderStatus;
+import com.pixelpro.orders.event.OrderStatusChangedEvent;
+import com.pixelpro.orders.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Parte transaccional del checkout. Se separa de OrderServiceImpl para que la transacción
+ * local (reservar stock y persistir la orden) sea corta y confirme ANTES de llamar a Mercado Pago:
+ * así una respuesta lenta de la pasarela no retiene una conexión del pool ni los bloqueos de stock.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CheckoutTransactionService {
+
+    private final OrderRepository orderRepository;
+    private final CustomerRepository customerRepository;
+    private final AddressRepository addressRepository;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.base-url}")
+    private String baseUrl;
+
+    // Constantes para el MVP
+    private static final BigDecimal SHIPPING_COST_DELIVERY = new BigDecimal("15.00");
+    private static final BigDecimal SHIPPING_COST_PICKUP = BigDecimal.ZERO;
+
+    /**
+     * Resultado de la transacción local del checkout
+     *
+     * @param orderId   ID de la orden persistida
+     * @param orderCode Código de la orden
+     * @param mpItems   Items para la preferencia de Mercado Pago (null si el pago no es por MP)
+     */
+    public record PlacedOrder(Long orderId, String orderCode, List<PreferenceItemRequest> mpItems) {
+    }
+
+    /**
+     * Valida el checkout, reserva stock y persiste la orden en una única transacción corta.
+     * No realiza llamadas externas.
+     */
+    @Transactional
+    public PlacedOrder placeOrder(String email, CheckoutRequestDto request) {
+        // 1. VALIDACIONES INICIALES
+        validateBusinessRules(request);
+        CustomerEntity customer = customerRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado: " + email));
+
+        // 2. DIRECCIÓN Y COSTO DE ENVÍO
+        AddressEntity shippingAddress = null;
+        BigDecimal shippingCost;
+
+        if (request.deliveryType() == DeliveryType.A_DOMICILIO) {
+            if (request.addressId() == null) {
+                throw new ConflictException("La dirección es obligatoria para delivery");
+            }
+            shippingAddress = addressRepository.findById(request.addressId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Dirección no encontrada"));
+
+            if (!shippingAddress.getCustomer().getId().equals(customer.getId())) {
+                throw new ConflictException("La dirección no pertenece al cliente");
+            }
+            shippingCost = SHIPPING_COST_DELIVERY;
+        } else {
+            shippingCost = SHIPPING_COST_PICKUP;
+        }
+
+        // 3. CARGAR PRODUCTOS (una sola consulta, con categoría) Y RESERVAR STOCK
+        Map<Long, ProductEntity> products = reserveStock(request.items());
+
+        // 4. PROCESAR ITEMS (ENTIDADES)
+        List<OrderItemEntity> orderItems = new ArrayList<>();
+        // Lista para MP (Solo se llenará si el method es MP)
+        List<PreferenceItemRequest> mpItems = (request.paymentMethod() == PaymentMethod.MERCADO_PAGO)
+                ? new ArrayList<>() : null;
+
+        BigDecimal subtotal = BigDecimal.ZERO;
+
+        for (CheckoutRequestDto.CartItemDto cartItem : request.items()) {
+            // El stock ya fue descontado en el paso 3
+            ProductEntity product = products.get(cartItem.productId());
+
+            // Crear Item de Orden
+            BigDecimal itemTotal = lineTotal(product.getPrice(), cartItem.quantity());
+            OrderItemEntity orderItem = OrderItemEntity.builder()
+                    .product(product)
+                    .quantity(cartItem.quantity().shortValue())
+                    .unitPrice(product.getPrice())
+                    .build();
+            orderItems.add(orderItem);
+            subtotal = subtotal.add(itemTotal);
+
+            // --- SOLO SI ES MP: Construir Item de Preferencia ---
+            if (mpItems != null) {
+                // Asegurar URL absoluta para la imagen
+                String imgUrl = product.getImageUrl();
+                if (imgUrl != null && !imgUrl.startsWith("http")) {
+                    imgUrl = baseUrl + imgUrl;
+                }
+
+                mpItems.add(PreferenceItemRequest.builder()
+                        .id(String.valueOf(product.getId()))
+                        .title(product.getName())
+                        .description(product.getDescription() != null ?
+                                product.getDescription().substring(0, Math.min(product.getDescription().length(), 200)) : "")
+                        .categoryId(product.getCategory().getName())
+                        .quantity(cartItem.quantity())
+                        .unitPrice(product.getPrice())
+                        .currencyId("PEN")
+                        .pictureUrl(imgUrl)
+                        .build());
+            }
+        }
+
+        // 5. CALCULAR TOTALES
+        BigDecimal total = subtotal.add(shippingCost);
+        String orderCode = generateOrderCode();
+
+        // Estado Inicial
+        OrderStatus initialStatus = (request.paymentMethod() == PaymentMethod.MERCADO_PAGO)
+                ? OrderStatus.PENDIENTE : OrderStatus.CONFIRMADO;
+
+        // 6. CREAR ORDEN BASE
+        OrderEntity order = OrderEntity.builder()
+                .code(orderCode)
+                .status(initialStatus)
+                .deliveryType(request.deliveryType())
+                .customer(customer)
+                .shippingAddress(shippingAddress)
+                .subtotal(subtotal)
+                .shippingCost(shippingCost)
+                .discount(BigDecimal.ZERO)
+                .total(total)
+                .items(orderItems)
+                .build();
+
+        // Relación bidireccional
+        orderItems.forEach(item -> item.setOrder(order));
+
+        // Guardar Orden (Aquí ya tenemos ID)
+        OrderEntity savedOrder = orderRepository.save(order);
+
+        // El stock cambió: invalidar el catálogo cacheado tras el commit
+        eventPublisher.publishEvent(CatalogChangedEvent.ofProducts(
+                orderItems.stream().map(item -> item.getProduct().getId()).toList()));
+        eventPublisher.publishEvent(OrderStatusChangedEvent.created(savedOrder.getId(), savedOrder.getStatus()));
+
+        // 7. BIFURCACIÓN DE FLUJO DE PAGO
+        if (request.paymentMethod() == PaymentMethod.MERCADO_PAGO) {
+            // --- FLUJO A: MERCADO PAGO (la preferencia se crea fuera de esta transacción) ---
+            // Agregar envío a MP si existe
+            if (shippingCost.compareTo(BigDecimal.ZERO) > 0 && mpItems != null) {
+                mpItems.add(PreferenceItemRequest.builder()
+                        .title("Costo de Envío")
+                        .quantity(1)
+                        .unitPrice(shippingCost)
+                        .currencyId("PEN")
+                        .build());
+            }
+            return new PlacedOrder(savedOrder.getId(), savedOrder.getCode(), mpItems);
+
+        } else {
+            // --- FLUJO B: PAGO EFECTIVO (RECOJO EN TIENDA) ---
+
+            // Crear Payment Entity "PENDIENTE" (A pagar en mostrador)
+            PaymentEntity payment = PaymentEntity.builder()
+                    .amount(total)
+                    .currency(CurrencyCode.PEN)
+                    .method(request.paymentMethod())
+                    .status(PaymentStatus.PENDIENTE)
+                    .transactionId("CASH-" + orderCode) // ID interno para efectivo
+                    .order(savedOrder)
+                    .build();
+
+            // No creamos Invoice todavía (se emite al pagar en tienda)
+            // O si prefieres crearla PENDIENTE:
+            /*
+            InvoiceEntity invoice = InvoiceEntity.builder() ... status(PENDIENTE) ...
+            savedOrder.setInvoice(invoice);
+            */
+
+            // Guardamos el pago (Cascade debería funcionar si Order tiene CascadeType.ALL en payments)
+            // Pero como payments es OneToMany, lo mejor es guardar el payment directamente
+            // O agregarlo a la lista de la orden y volver a guardar la orden
+
+            // Opción segura: Guardar orden con la lista actualizada (si cascade está bien)
+            // O guardar el payment repository si lo inyectaste.
+            // Asumimos cascade en OrderEntity:
+            List<PaymentEntity> payments = new ArrayList<>();
+            payments.add(payment);
+            savedOrder.setPayments(payments);
+
+            orderRepository.save(savedOrder);
+
+            return new PlacedOrder(savedOrder.getId(), savedOrder.getCode(), null);
+        }
+    }
+
+    /**
+     * Compensación cuando falla la creación de la preferencia de Mercado Pago:
+     * devuelve el stock reservado y cancela la orden que quedó PENDIENTE.
+     */
+    @Transactional
+    public void cancelCheckout(Long orderId) {
+        // Bloquea la orden: un webhook de pago aprobado no puede confirmarla mientras se cancela
+        OrderEntity order = orderRepository.findByIdForUpdate(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Orden no encontrada con ID: " + orderId));
+
+        if (order.getStatus() != OrderStatus.PENDIENTE) {
+            // Otro proceso (p. ej. el webhook) ya avanzó la orden: no se toca
+            log.warn("No se compensa la orden {} porque su estado es {}", order.getCode(), order.getStatus());
+            return;
+        }
+
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (OrderItemEntity item : order.getItems()) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity().intValue(), Integer::sum);
+        }
+        productRepository.incrementStockInBatch(quantities);
+
+        order.setStatus(OrderStatus.CANCELADO);
+        orderRepository.save(order);
+        log.info("Orden {} cancelada y stock liberado tras fallo en Mercado Pago.", order.getCode());
+
+        eventPublisher.publishEvent(CatalogChangedEvent.ofProducts(quantities.keySet()));
+        eventPublisher.publishEvent(OrderStatusChangedEvent.changed(order.getId(), OrderStatus.PENDIENTE, OrderStatus.CANCELADO));
+    }
+
+    /**
+     * Carga los productos del carrito en una sola consulta y descuenta su stock en un único batch JDBC
+     * de UPDATEs condicionales. Los productos se procesan en orden ascendente de ID (y con cantidades
+     * agrupadas si se repiten) para que dos checkouts concurrentes bloqueen las filas en el mismo orden
+     * y no se produzcan deadlocks. Si algún producto no alcanza, la excepción revierte toda la transacción.
+     *
+     * @return Productos del carrito indexados por ID (con su categoría inicializada)
+     */
+    private Map<Long, ProductEntity> reserveStock(List<CheckoutRequestDto.CartItemDto> items) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (CheckoutRequestDto.CartItemDto item : items) {
+            quantities.merge(item.productId(), item.quantity(), Integer::sum);
+        }
+
+        Map<Long, ProductEntity> products = productRepository.findAllWithCategoryByIdIn(quantities.keySet()).stream()
+                .collect(Collectors.toMap(ProductEntity::getId, Function.identity()));
+        for (Long productId : quantities.keySet()) {
+            if (!products.containsKey(productId)) {
+                throw new ResourceNotFoundException("Producto ID " + productId + " no encontrado");
+            }
+        }
+
+        int[] updatedRows = productRepository.decrementStockInBatch(quantities);
+        int index = 0;
+        for (Long productId : quantities.keySet()) {
+            if (updatedRows[index++] == 0) {
+                throw new ConflictException("Stock insuficiente para: " + products.get(productId).getName());
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Importe de una línea del carrito (precio unitario x cantidad).
+     * BigDecimal.valueOf reutiliza las instancias cacheadas para cantidades pequeñas.
+     */
+    static BigDecimal lineTotal(BigDecimal unitPrice, int quantity) {
+        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    }
+
+    /**
+     * Genera un código único de orden (ORD-2025-00001). El número sale de una secuencia de la base,
+     * así que dos checkouts simultáneos (en esta u otra instancia) nunca obtienen el mismo código.
+     */
+    private String generateOrderCode() {
+        return String.format("ORD-%d-%05d", Year.now().getValue(), orderRepository.nextOrderCodeNumber());
+    }
+
+    /**
+     * Verifica las reglas de negocio del checkout
+     */
+    private void validateBusinessRules(CheckoutRequestDto request) {
+        // Regla: Pago contra entrega solo disponible para recojo en tienda
+        if (request.deliveryType() == DeliveryType.A_DOMICILIO
+                && request.paymentMethod() == PaymentMethod.PAGO_EFECTIVO) {
+            throw new ConflictException(
+                    "El pago contra entrega solo está disponible para recojo en tienda. " +
+                            "Para delivery, debe pagar online."
+            );
+        }
+    }
+}
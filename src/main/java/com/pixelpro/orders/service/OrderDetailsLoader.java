@@ -0,0 +1,53 @@
+package com.pixelpro.orders.service;
+
+import com.pixelpro.customers.repository.CustomerRepository;
+import com.pixelpro.orders.entity.OrderEntity;
+import com.pixelpro.orders.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Carga órdenes con todas las relaciones que necesita el OrderMapper en un número
+ * fijo de consultas, sin importar el tamaño de la página:
+ * 1) órdenes + cliente + dirección + factura + items/producto, 2) pagos, 3) direcciones del cliente.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderDetailsLoader {
+
+    private final OrderRepository orderRepository;
+    private final CustomerRepository customerRepository;
+
+    /**
+     * @param ids IDs de las órdenes en el orden deseado
+     * @return Órdenes completamente inicializadas, respetando el orden de {@code ids}
+     */
+    @Transactional(readOnly = true)
+    public List<OrderEntity> loadWithDetails(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, OrderEntity> byId = orderRepository.findWithDetailsByIdIn(ids).stream()
+                .collect(Collectors.toMap(OrderEntity::getId, Function.identity()));
+        orderRepository.fetchPaymentsByIdIn(ids);
+
+        Collection<Long> customerIds = byId.values().stream()
+                .map(order -> order.getCustomer().getId())
+                .collect(Collectors.toSet());
+        customerRepository.fetchAddressesByIdIn(customerIds);
+
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -1,8 +1,10 @@
 package com.pixelpro.orders.service;
 
+import com.pixelpro.common.dto.CursorPageDto;
 import com.pixelpro.orders.dto.CheckoutRequestDto;
 import com.pixelpro.orders.dto.CheckoutResponseDto;
 import com.pixelpro.orders.dto.OrderDto;
+import com.pixelpro.orders.dto.OrderSummaryDto;
 import com.pixelpro.orders.entity.enums.DeliveryType;
 import com.pixelpro.orders.entity.enums.OrderStatus;
 import org.springframework.data.domain.Page;
@@ -11,15 +13,18 @@ import org.springframework.data.domain.Pageable;
 public interface OrderService {
 
     /**
-     * Obtiene todas las órdenes con paginación y filtros opcionales
+     * Obtiene el listado de órdenes del panel admin con paginación y filtros opcionales.
+     * Usa una proyección a DTO en una sola consulta; el detalle completo se obtiene con {@link #getOrderById}.
      *
      * @param search       Término de búsqueda (código de orden, nombre o apellido del cliente)
      * @param status       Estado de la orden (filtro exacto, opcional)
      * @param deliveryType Tipo de entrega (filtro exacto, opcional)
      * @param pageable     Configuración de paginación
-     * @return Página de órdenes que coinciden con los filtros
+     * @return Página de resúmenes de órdenes que coinciden con los filtros
      */
-    Page<OrderDto> getAllOrders(String search, OrderStatus status, DeliveryType deliveryType, Pageable pageable);
+    Page<OrderSummaryDto> getOrderSummaries(String search, OrderStatus status, DeliveryType deliveryType, Pageable pageable);
+
+    CursorPageDto<OrderSummaryDto> scrollOrderSummaries(String search, OrderStatus status, DeliveryType deliveryType, String cursor, int size);
 
     /**
      * Obtiene una orden por su ID
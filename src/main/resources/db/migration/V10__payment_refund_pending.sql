@@ -0,0 +1,7 @@
+-- Nuevo estado de pago REEMBOLSO_PENDIENTE: pagos aprobados por Mercado Pago para una orden que ya no
+-- puede confirmarse (cancelada, o ya pagada con otro pago). Se cobraron y hay que devolverlos.
+-- El nombre es el que PostgreSQL asigna al CHECK de la columna (V1 y esquemas creados por Hibernate).
+alter table payments drop constraint if exists payments_status_check;
+
+alter table payments add constraint payments_status_check
+    check (status in ('PENDIENTE','AUTORIZADO','CONFIRMADO','RECHAZADO','CANCELADO','REEMBOLSADO','REEMBOLSO_PENDIENTE'));
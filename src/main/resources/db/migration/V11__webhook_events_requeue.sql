@@ -0,0 +1,3 @@
+-- Notificación recibida mientras el evento estaba PROCESANDO: el worker ya consultó el pago y podría
+-- no ver el cambio que avisa la nueva notificación. markProcessed devuelve el evento a PENDIENTE.
+alter table webhook_events add column if not exists requeue boolean not null default false;
@@ -0,0 +1,13 @@
+-- Último estado de cada orden ya reflejado en los agregados del dashboard. DashboardAggregateService
+-- solo aplica un cambio de estado si parte del estado registrado aquí, así la reconciliación y los
+-- cambios que llegan después de ella no cuentan dos veces la misma orden.
+create table if not exists dashboard_order_state (
+    order_id bigint not null references orders (id) on delete cascade,
+    status varchar(20) not null check (status in ('PENDIENTE','CONFIRMADO','PREPARANDO','ENVIADO','ENTREGADO','CANCELADO')),
+    primary key (order_id)
+);
+
+-- Los agregados existentes ya incluyen las órdenes actuales
+insert into dashboard_order_state (order_id, status)
+select id, status from orders
+on conflict (order_id) do nothing;
@@ -0,0 +1,187 @@
+-- Esquema base: las tablas que Hibernate generaba con ddl-auto=update antes de pasar a Flyway.
+-- Las bases existentes se marcan en esta versión (baseline-on-migrate) y no lo ejecutan;
+-- todo lo agregado después (cola de webhooks, agregados del dashboard, refresh tokens e índices)
+-- va en las migraciones siguientes.
+
+create table addresses (
+    id bigint generated by default as identity,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    address_line varchar(120) not null,
+    phone varchar(9),
+    reference varchar(120),
+    type varchar(20) not null,
+    department varchar(50) not null,
+    district varchar(50) not null,
+    province varchar(50) not null,
+    customer_id bigint not null,
+    primary key (id)
+);
+
+create table category (
+    id bigint generated by default as identity,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    name varchar(255) not null,
+    parent_category_id bigint,
+    primary key (id)
+);
+
+create table customers (
+    id bigint generated by default as identity,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    customer_type varchar(15) not null check (customer_type in ('NATURAL','JURIDICA')),
+    document_number varchar(15) not null unique,
+    document_type varchar(20) not null check (document_type in ('DNI','RUC','PASAPORTE')),
+    email varchar(150) not null unique,
+    first_name varchar(60) not null,
+    last_name varchar(60) not null,
+    phone_number varchar(9) not null,
+    user_id bigint unique,
+    primary key (id)
+);
+
+create table invoices (
+    id bigint generated by default as identity,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    currency varchar(5) not null check (currency in ('PEN')),
+    document_url oid,
+    hash_value oid,
+    issued_at timestamp(6),
+    number varchar(20),
+    serie varchar(10),
+    status varchar(30) not null check (status in ('EMITIDO','ANULADO','ENVIO_PENDIENTE')),
+    total_amount numeric(12,2) not null,
+    type varchar(20) not null check (type in ('BOLETA','FACTURA')),
+    order_id bigint not null unique,
+    primary key (id)
+);
+
+create table order_items (
+    id bigint generated by default as identity,
+    quantity smallint not null,
+    unit_price numeric(10,2) not null,
+    order_id bigint not null,
+    product_id bigint not null,
+    primary key (id)
+);
+
+create table orders (
+    id bigint generated by default as identity,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    code varchar(20) not null unique,
+    delivery_type varchar(20) not null check (delivery_type in ('A_DOMICILIO','RECOJO_EN_TIENDA')),
+    discount numeric(10,2) not null,
+    shipping_cost numeric(10,2) not null,
+    status varchar(20) not null check (status in ('PENDIENTE','CONFIRMADO','PREPARANDO','ENVIADO','ENTREGADO','CANCELADO')),
+    subtotal numeric(10,2) not null,
+    total numeric(10,2) not null,
+    customer_id bigint not null,
+    shipping_address_id bigint,
+    primary key (id)
+);
+
+create table payments (
+    id bigint generated by default as identity,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    amount numeric(12,2) not null,
+    currency varchar(5) not null check (currency in ('PEN')),
+    method varchar(20) not null check (method in ('MERCADO_PAGO','TARJETA','YAPE','PLIN','PAGO_EFECTIVO')),
+    paid_at timestamp(6),
+    status varchar(20) not null check (status in ('PENDIENTE','AUTORIZADO','CONFIRMADO','RECHAZADO','CANCELADO','REEMBOLSADO')),
+    transaction_id varchar(100),
+    order_id bigint not null,
+    primary key (id)
+);
+
+create table product (
+    id bigint generated by default as identity,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    description TEXT,
+    image_url varchar(255),
+    model varchar(255),
+    name varchar(255) not null,
+    price numeric(38,2) not null,
+    qty_stock integer not null,
+    sku varchar(255) not null unique,
+    status varchar(255) not null,
+    category_id bigint,
+    primary key (id)
+);
+
+create table roles (
+    id bigint generated by default as identity,
+    role_name varchar(255) check (role_name in ('ADMIN','CLIENTE')),
+    primary key (id)
+);
+
+create table users (
+    id bigint generated by default as identity,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    email varchar(255) not null unique,
+    enabled boolean not null,
+    password_hash varchar(255) not null,
+    role_id bigint not null,
+    primary key (id)
+);
+
+alter table if exists addresses
+   add constraint FKhrpf5e8dwasvdc5cticysrt2k
+   foreign key (customer_id)
+   references customers;
+
+alter table if exists category
+   add constraint FKs2ride9gvilxy2tcuv7witnxc
+   foreign key (parent_category_id)
+   references category;
+
+alter table if exists customers
+   add constraint FKrh1g1a20omjmn6kurd35o3eit
+   foreign key (user_id)
+   references users;
+
+alter table if exists invoices
+   add constraint FK4ko3y00tkkk2ya3p6wnefjj2f
+   foreign key (order_id)
+   references orders;
+
+alter table if exists order_items
+   add constraint FKbioxgbv59vetrxe0ejfubep1w
+   foreign key (order_id)
+   references orders;
+
+alter table if exists order_items
+   add constraint FKlf6f9q956mt144wiv6p1yko16
+   foreign key (product_id)
+   references product;
+
+alter table if exists orders
+   add constraint FKpxtb8awmi0dk6smoh2vp1litg
+   foreign key (customer_id)
+   references customers;
+
+alter table if exists orders
+   add constraint FKmk6q95x8ffidq82wlqjaq7sqc
+   foreign key (shipping_address_id)
+   references addresses;
+
+alter table if exists payments
+   add constraint FK81gagumt0r8y3rmudcgpbk42l
+   foreign key (order_id)
+   references orders;
+
+alter table if exists product
+   add constraint FK1mtsbur82frn64de7balymq9s
+   foreign key (category_id)
+   references category;
+
+alter table if exists users
+   add constraint FKp56c1712k691lhsyewcssf40f
+   foreign key (role_id)
+   references roles;
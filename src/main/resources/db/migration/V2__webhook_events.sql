@@ -0,0 +1,14 @@
+-- Cola persistente de notificaciones de Mercado Pago (WebhookQueueService / WebhookWorker).
+-- "if not exists": una base creada por Hibernate (ddl-auto=update) con la cola ya la tiene.
+
+create table if not exists webhook_events (
+    id bigint generated by default as identity,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    attempts integer not null,
+    last_error varchar(500),
+    next_attempt_at timestamp(6) not null,
+    payment_id varchar(50) not null unique,
+    status varchar(20) not null check (status in ('PENDIENTE','PROCESANDO','PROCESADO','FALLIDO')),
+    primary key (id)
+);
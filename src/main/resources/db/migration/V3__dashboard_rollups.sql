@@ -0,0 +1,26 @@
+-- Agregados del dashboard mantenidos de forma incremental (DashboardAggregateService).
+-- Se llenan al arrancar con DashboardAggregateReconciler, así que aquí solo se crean vacías.
+
+create table if not exists dashboard_daily_sales (
+    sales_date date not null,
+    order_count bigint not null,
+    revenue numeric(14,2) not null,
+    primary key (sales_date)
+);
+
+create table if not exists dashboard_order_status_totals (
+    status varchar(20) not null check (status in ('PENDIENTE','CONFIRMADO','PREPARANDO','ENVIADO','ENTREGADO','CANCELADO')),
+    order_count bigint not null,
+    revenue numeric(14,2) not null,
+    primary key (status)
+);
+
+create table if not exists dashboard_product_sales (
+    product_id bigint not null,
+    qty_sold bigint not null,
+    revenue numeric(14,2) not null,
+    primary key (product_id)
+);
+
+create index if not exists idx_dashboard_product_sales_qty
+   on dashboard_product_sales (qty_sold);
@@ -0,0 +1,21 @@
+-- Refresh tokens rotativos (RefreshTokenService). La FK va dentro del create table para que
+-- una base que ya tenga la tabla (creada por Hibernate) no intente agregarla dos veces.
+
+create table if not exists refresh_tokens (
+    id bigint generated by default as identity,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    expires_at timestamp(6) not null,
+    family_id varchar(36) not null,
+    revoked boolean not null,
+    token_hash varchar(64) not null unique,
+    user_id bigint not null,
+    primary key (id),
+    constraint FK1lih5y2npsf8u5o3vhdb9y0os foreign key (user_id) references users
+);
+
+create index if not exists idx_refresh_tokens_family
+   on refresh_tokens (family_id);
+
+create index if not exists idx_refresh_tokens_user
+   on refresh_tokens (user_id);
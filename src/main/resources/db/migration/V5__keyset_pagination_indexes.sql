@@ -0,0 +1,13 @@
+-- Índices de la paginación por cursor (keyset). Se crean CONCURRENTLY porque las tablas
+-- ya existen y tienen datos (ver V5__keyset_pagination_indexes.sql.conf).
+
+-- Catálogo público por cursor: WHERE status = ? ORDER BY name, id
+create index concurrently if not exists idx_product_status_name_id
+    on product (status, name, id);
+
+-- Scroll de órdenes y clientes del admin: ORDER BY created_at DESC, id DESC
+create index concurrently if not exists idx_orders_created_at_id
+    on orders (created_at, id);
+
+create index concurrently if not exists idx_customers_created_at_id
+    on customers (created_at, id);
@@ -0,0 +1,39 @@
+-- Índices para los filtros de los repositorios. Se crean CONCURRENTLY para no bloquear
+-- escrituras en una base en producción (ver V6__filter_indexes.sql.conf).
+
+-- findAllWithFilters / findSummariesWithFilters: orden por defecto updatedAt DESC
+create index concurrently if not exists idx_orders_updated_at
+    on orders (updated_at);
+
+-- getSalesByDateRange, countByStatus, sumTotalByStatuses: estado + rango de fechas.
+-- INCLUDE (total) permite resolver las sumas con un index-only scan.
+create index concurrently if not exists idx_orders_status_created_at
+    on orders (status, created_at) include (total);
+
+-- findByCustomer_EmailAndStatus / findIdsByCustomerEmail: órdenes de un cliente
+create index concurrently if not exists idx_orders_customer_status
+    on orders (customer_id, status);
+
+-- findTopSellingProducts y carga de items por orden
+create index concurrently if not exists idx_order_items_order
+    on order_items (order_id);
+
+create index concurrently if not exists idx_order_items_product
+    on order_items (product_id);
+
+-- ProductRepository.findByFilters: categoría + estado
+create index concurrently if not exists idx_product_category_status
+    on product (category_id, status);
+
+create index concurrently if not exists idx_payments_order
+    on payments (order_id);
+
+create index concurrently if not exists idx_addresses_customer
+    on addresses (customer_id);
+
+create index concurrently if not exists idx_category_parent
+    on category (parent_category_id);
+
+-- Reclamo de la cola de webhooks (lockNextBatch)
+create index concurrently if not exists idx_webhook_events_status_next_attempt
+    on webhook_events (status, next_attempt_at);
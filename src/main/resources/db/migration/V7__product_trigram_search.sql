@@ -0,0 +1,21 @@
+-- Índices de trigramas (pg_trgm) para la búsqueda de productos por nombre o SKU.
+-- Si la extensión no puede instalarse (p. ej. sin permisos en la BD) la migración no falla:
+-- ProductSearchIndex detecta que faltan los índices y la búsqueda usa LIKE.
+
+do $$
+begin
+    create extension if not exists pg_trgm;
+exception
+    when insufficient_privilege or undefined_file then
+        raise notice 'pg_trgm no disponible, la búsqueda de productos usará LIKE: %', sqlerrm;
+end
+$$;
+
+do $$
+begin
+    if exists (select 1 from pg_extension where extname = 'pg_trgm') then
+        execute 'create index if not exists idx_product_name_trgm on product using gin (name gin_trgm_ops)';
+        execute 'create index if not exists idx_product_sku_trgm on product using gin (sku gin_trgm_ops)';
+    end if;
+end
+$$;
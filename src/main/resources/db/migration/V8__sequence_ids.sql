@@ -0,0 +1,20 @@
+-- IDs por secuencia con optimizador pooled (allocationSize = 50): Hibernate reserva bloques de
+-- 50 IDs con un solo nextval y puede agrupar los INSERT en lotes JDBC, cosa que IDENTITY impide.
+-- webhook_events sigue con IDENTITY porque se inserta con un upsert nativo.
+--
+-- Cada secuencia arranca de modo que el primer bloque reservado quede por encima del máximo
+-- ID existente: el primer nextval devuelve max(id) + 50 y el bloque es (max(id), max(id) + 50].
+
+do $$
+declare
+    t text;
+begin
+    foreach t in array array['addresses', 'category', 'customers', 'invoices', 'order_items', 'orders',
+                             'payments', 'product', 'refresh_tokens', 'roles', 'users']
+    loop
+        execute format('create sequence if not exists %I increment by 50', t || '_seq');
+        execute format('select setval(%L, coalesce((select max(id) from %I), 0) + 50, false)', t || '_seq', t);
+        execute format('alter table %I alter column id drop identity if exists', t);
+    end loop;
+end
+$$;
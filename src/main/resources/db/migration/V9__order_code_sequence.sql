@@ -0,0 +1,4 @@
+-- Correlativo de los códigos de orden (ORD-<año>-<número>). Lo reparte la base de datos,
+-- así que es único entre todas las instancias de la aplicación; los códigos existentes
+-- (ORD-<milisegundos> y los de los datos de ejemplo) no siguen este formato y no chocan.
+create sequence if not exists order_code_seq;
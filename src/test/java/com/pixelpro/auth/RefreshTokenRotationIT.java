@@ -0,0 +1,90 @@
+package com.pixelpro.auth;
+
+import com.pixelpro.auth.config.JwtService;
+import com.pixelpro.auth.service.RefreshTokenService;
+import com.pixelpro.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rotaciones simultáneas del mismo refresh token: solo una puede ganar (revocación condicional);
+ * las demás cuentan como reutilización y cortan toda la familia.
+ */
+class RefreshTokenRotationIT extends PostgresIntegrationTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void concurrentRotationsOfOneTokenHaveOneWinner() throws Exception {
+        Long userId = jdbc.queryForObject("select id from users where enabled order by id limit 1", Long.class);
+        String token = refreshTokenService.issue(userId);
+
+        List<Boolean> results = rotateConcurrently(token);
+
+        assertThat(results).filteredOn(Boolean::booleanValue).hasSize(1);
+        String familyId = jdbc.queryForObject("select family_id from refresh_tokens where token_hash = ?",
+                String.class, JwtService.sha256Hex(token));
+        assertThat(jdbc.queryForList("select revoked from refresh_tokens where family_id = ?", Boolean.class, familyId))
+                .hasSize(2)
+                .containsOnly(true);
+    }
+
+    /**
+     * Devuelve true por cada rotación aceptada y false por cada rechazo; cualquier otra excepción hace fallar la prueba
+     */
+    private List<Boolean> rotateConcurrently(String token) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(rotate(start, token)));
+            }
+            start.countDown();
+
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                try {
+                    results.add(future.get(30, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    throw new AssertionError("La rotación falló por un motivo distinto a la reutilización", e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Callable<Boolean> rotate(CountDownLatch start, String token) {
+        return () -> {
+            start.await();
+            try {
+                refreshTokenService.rotate(token);
+                return true;
+            } catch (BadCredentialsException e) {
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,134 @@
+package com.pixelpro.billing;
+
+import com.pixelpro.billing.entity.enums.PaymentMethod;
+import com.pixelpro.billing.gateway.FakePaymentGateway;
+import com.pixelpro.billing.service.PaymentWebhookService;
+import com.pixelpro.orders.dto.CheckoutRequestDto;
+import com.pixelpro.orders.dto.CheckoutRequestDto.CartItemDto;
+import com.pixelpro.orders.dto.CheckoutResponseDto;
+import com.pixelpro.orders.entity.enums.DeliveryType;
+import com.pixelpro.orders.service.CheckoutTransactionService;
+import com.pixelpro.orders.service.OrderService;
+import com.pixelpro.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Webhooks de pago aprobado (con la pasarela simulada, que aprueba el pago al crear la preferencia):
+ * solo confirman órdenes PENDIENTES, son idempotentes y los errores de BD se relanzan para reintentarlos.
+ */
+class PaymentWebhookIT extends PostgresIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CheckoutTransactionService checkoutTransactionService;
+
+    @Autowired
+    private PaymentWebhookService paymentWebhookService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private String email;
+    private Long productId;
+
+    @BeforeEach
+    void pickCustomerAndProduct() {
+        email = jdbc.queryForObject("select email from customers order by id limit 1", String.class);
+        productId = jdbc.queryForObject("select id from product where status = 'ACTIVO' and qty_stock > 10 order by id limit 1", Long.class);
+    }
+
+    @Test
+    void approvedPaymentConfirmsPendingOrderOnce() {
+        CheckoutResponseDto checkout = checkoutWithMercadoPago();
+
+        paymentWebhookService.processPaymentNotification(paymentIdOf(checkout));
+        paymentWebhookService.processPaymentNotification(paymentIdOf(checkout));
+
+        assertThat(orderStatus(checkout.orderId())).isEqualTo("CONFIRMADO");
+        assertThat(paymentStatuses(checkout.orderId())).containsExactly("CONFIRMADO");
+    }
+
+    @Test
+    void lateApprovalForCancelledOrderIsFlaggedForRefund() {
+        CheckoutResponseDto checkout = checkoutWithMercadoPago();
+        checkoutTransactionService.cancelCheckout(checkout.orderId());
+        int stockAfterCancel = stockOf(productId);
+
+        paymentWebhookService.processPaymentNotification(paymentIdOf(checkout));
+        paymentWebhookService.processPaymentNotification(paymentIdOf(checkout));
+
+        assertThat(orderStatus(checkout.orderId())).isEqualTo("CANCELADO");
+        assertThat(paymentStatuses(checkout.orderId())).containsExactly("REEMBOLSO_PENDIENTE");
+        // El stock liberado al cancelar no se vuelve a tocar
+        assertThat(stockOf(productId)).isEqualTo(stockAfterCancel);
+    }
+
+    @Test
+    void lockTimeoutOnOrderIsRethrownForRetry() throws Exception {
+        CheckoutResponseDto checkout = checkoutWithMercadoPago();
+
+        // Otra transacción retiene la orden; el webhook se ejecuta dentro de una transacción con
+        // lock_timeout corto (applyApprovedPayment se une a ella) para que la espera falle
+        try (Connection holder = dataSource.getConnection()) {
+            holder.setAutoCommit(false);
+            try (PreparedStatement lock = holder.prepareStatement("select id from orders where id = ? for update")) {
+                lock.setLong(1, checkout.orderId());
+                lock.executeQuery().close();
+            }
+
+            assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbc.execute("set local lock_timeout = '200ms'");
+                paymentWebhookService.processPaymentNotification(paymentIdOf(checkout));
+            })).isInstanceOf(PessimisticLockingFailureException.class);
+
+            holder.rollback();
+        }
+
+        // El worker reintenta y, ya sin el bloqueo, confirma la orden
+        paymentWebhookService.processPaymentNotification(paymentIdOf(checkout));
+        assertThat(orderStatus(checkout.orderId())).isEqualTo("CONFIRMADO");
+    }
+
+    private CheckoutResponseDto checkoutWithMercadoPago() {
+        return orderService.processCheckout(email, new CheckoutRequestDto(
+                null, DeliveryType.RECOJO_EN_TIENDA, PaymentMethod.MERCADO_PAGO, List.of(new CartItemDto(productId, 1))));
+    }
+
+    private static String paymentIdOf(CheckoutResponseDto checkout) {
+        // La pasarela simulada codifica el ID del pago en el ID de la preferencia
+        return checkout.preferenceId().substring(FakePaymentGateway.PREFERENCE_PREFIX.length());
+    }
+
+    private String orderStatus(Long orderId) {
+        return jdbc.queryForObject("select status from orders where id = ?", String.class, orderId);
+    }
+
+    private List<String> paymentStatuses(Long orderId) {
+        return jdbc.queryForList("select status from payments where order_id = ?", String.class, orderId);
+    }
+
+    private int stockOf(Long productId) {
+        return jdbc.queryForObject("select qty_stock from product where id = ?", Integer.class, productId);
+    }
+}
@@ -0,0 +1,109 @@
+package com.pixelpro.billing;
+
+import com.pixelpro.billing.gateway.PaymentGatewayException;
+import com.pixelpro.billing.service.WebhookQueueService;
+import com.pixelpro.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Transiciones de la cola de webhooks ante notificaciones repetidas.
+ * El worker no consume la cola durante la prueba (solo sondea al arrancar).
+ */
+@TestPropertySource(properties = "app.webhook.worker.poll-interval=3600000")
+class WebhookQueueIT extends PostgresIntegrationTest {
+
+    @Autowired
+    private WebhookQueueService webhookQueueService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void notificationWhileProcessingRequeuesAfterProcessed() {
+        Long id = insertEvent("PROCESANDO", 2);
+
+        webhookQueueService.enqueue(paymentIdOf(id));
+
+        // El evento sigue tomado por el worker, pero queda marcado para volver a la cola
+        assertThat(event(id)).containsEntry("status", "PROCESANDO").containsEntry("requeue", true).containsEntry("attempts", 2);
+
+        webhookQueueService.markProcessed(id);
+
+        assertThat(event(id)).containsEntry("status", "PENDIENTE").containsEntry("requeue", false).containsEntry("attempts", 0);
+    }
+
+    @Test
+    void notificationWhileProcessingRequeuesAfterFailure() {
+        Long id = insertEvent("PROCESANDO", 7);
+
+        webhookQueueService.enqueue(paymentIdOf(id));
+        webhookQueueService.markFailed(new WebhookQueueService.ClaimedWebhook(id, paymentIdOf(id), 7), new RuntimeException("HTTP 503"));
+
+        // Aunque se agotaron los intentos, la notificación nueva se procesa desde cero
+        assertThat(event(id)).containsEntry("status", "PENDIENTE").containsEntry("requeue", false).containsEntry("attempts", 0);
+    }
+
+    @Test
+    void nonRetryableGatewayErrorFailsImmediately() {
+        Long id = insertEvent("PROCESANDO", 0);
+
+        webhookQueueService.markFailed(new WebhookQueueService.ClaimedWebhook(id, paymentIdOf(id), 0),
+                new PaymentGatewayException("HTTP 401", null, false));
+
+        assertThat(event(id)).containsEntry("status", "FALLIDO").containsEntry("attempts", 1);
+    }
+
+    @Test
+    void retryableGatewayErrorIsRetried() {
+        Long id = insertEvent("PROCESANDO", 0);
+
+        webhookQueueService.markFailed(new WebhookQueueService.ClaimedWebhook(id, paymentIdOf(id), 0),
+                new PaymentGatewayException("HTTP 503", null, true));
+
+        assertThat(event(id)).containsEntry("status", "PENDIENTE").containsEntry("attempts", 1);
+    }
+
+    @Test
+    void processedWithoutNewNotificationStaysProcessed() {
+        Long id = insertEvent("PROCESANDO", 1);
+
+        webhookQueueService.markProcessed(id);
+
+        assertThat(event(id)).containsEntry("status", "PROCESADO").containsEntry("requeue", false).containsEntry("attempts", 1);
+    }
+
+    @Test
+    void notificationAfterProcessedEnqueuesAgain() {
+        Long id = insertEvent("PROCESADO", 3);
+
+        webhookQueueService.enqueue(paymentIdOf(id));
+
+        assertThat(event(id)).containsEntry("status", "PENDIENTE").containsEntry("requeue", false).containsEntry("attempts", 0);
+    }
+
+    // Lease largo: aunque el worker sondeara, no tomaría el evento
+    private Long insertEvent(String status, int attempts) {
+        String paymentId = "it-" + UUID.randomUUID();
+        return jdbc.queryForObject("""
+                insert into webhook_events (payment_id, status, attempts, next_attempt_at, requeue, created_at, updated_at)
+                values (?, ?, ?, now() + interval '1 hour', false, now(), now())
+                returning id
+                """, Long.class, paymentId, status, attempts);
+    }
+
+    private String paymentIdOf(Long id) {
+        return jdbc.queryForObject("select payment_id from webhook_events where id = ?", String.class, id);
+    }
+
+    private Map<String, Object> event(Long id) {
+        return jdbc.queryForMap("select status, requeue, attempts from webhook_events where id = ?", id);
+    }
+}
@@ -0,0 +1,250 @@
+package com.pixelpro.common.database;
+
+import com.pixelpro.catalog.repository.ProductRepository;
+import com.pixelpro.customers.repository.CustomerRepository;
+import com.pixelpro.dashboard.service.DashboardAggregateService;
+import com.pixelpro.orders.entity.enums.OrderStatus;
+import com.pixelpro.orders.repository.OrderRepository;
+import com.pixelpro.support.PostgresIntegrationTest;
+import com.pixelpro.support.SqlStatementRecorder;
+import com.pixelpro.support.SqlStatementRecorder.RecordedStatement;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Las consultas de filtrado de los repositorios se resuelven con los índices pensados para ellas
+ * (migraciones V5, V6 y V7). Cada prueba carga un volumen realista de clientes, productos y órdenes
+ * dentro de una transacción que se revierte al final, actualiza las estadísticas (ANALYZE) y, en esa
+ * misma transacción, ejecuta el método, captura el SQL que generó Hibernate con sus parámetros y lo
+ * repite como EXPLAIN con la configuración por defecto del planificador: la consulta principal debe
+ * usar el índice esperado porque el planificador lo elige, no porque se le prohíba el Seq Scan.
+ */
+@Slf4j
+class RepositoryFilterPlanIT extends PostgresIntegrationTest {
+
+    private static final Pageable PAGE = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "updatedAt"));
+
+    // IDs de los datos cargados por la prueba, lejos de los que asignan las secuencias
+    private static final long SEED_ID = 900_000_000L;
+    private static final int SEED_CUSTOMERS = 20_000;
+    private static final int SEED_PRODUCTS = 20_000;
+    private static final int SEED_ORDERS = 60_000;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void updateStatistics() {
+        // Estadísticas al día tras cargar los datos iniciales: planes estables en una base recién creada
+        jdbc.execute("ANALYZE");
+    }
+
+    @Test
+    void adminOrderFiltersUseIndexes() {
+        withSeededData(() -> {
+            assertPlanUses("findAllWithFilters",
+                    () -> orderRepository.findAllWithFilters(null, OrderStatus.CONFIRMADO, null, PAGE),
+                    "idx_orders_updated_at");
+            assertPlanUses("findIdsWithFilters",
+                    () -> orderRepository.findIdsWithFilters(null, OrderStatus.CONFIRMADO, null, PAGE),
+                    "idx_orders_updated_at");
+        });
+    }
+
+    @Test
+    void salesByDateRangeUsesIndexes() {
+        withSeededData(() -> {
+            // Un día de los dos años cargados
+            LocalDateTime start = LocalDateTime.of(2024, 6, 1, 0, 0);
+            assertPlanUses("getSalesByDateRange",
+                    () -> orderRepository.getSalesByDateRange(DashboardAggregateService.REVENUE_STATUSES, start, start.plusDays(1)),
+                    "idx_orders_status_created_at", "idx_orders_created_at_id");
+        });
+    }
+
+    @Test
+    void customerOrdersUseIndexes() {
+        withSeededData(() -> {
+            String email = jdbc.queryForObject("select email from customers where id = ?", String.class, SEED_ID + 1);
+            assertPlanUses("findByCustomer_EmailAndStatus",
+                    () -> orderRepository.findByCustomer_EmailAndStatus(email, OrderStatus.CONFIRMADO, PAGE),
+                    "idx_orders_customer_status");
+            assertPlanUses("findIdsByCustomerEmail",
+                    () -> orderRepository.findIdsByCustomerEmail(email, OrderStatus.CONFIRMADO, PAGE),
+                    "idx_orders_customer_status");
+        });
+    }
+
+    @Test
+    void keysetScrollsUseIndexes() {
+        withSeededData(() -> {
+            // Cursor a mitad de la tabla: la página siguiente debe seguir el índice desde ahí
+            Map<String, Object> order = jdbc.queryForMap("select created_at, id from orders where id = ?", SEED_ID + SEED_ORDERS / 2);
+            assertPlanUses("findSummariesAfter",
+                    () -> orderRepository.findSummariesAfter(null, null, null,
+                            ((Timestamp) order.get("created_at")).toLocalDateTime(), (Long) order.get("id"), PageRequest.of(0, 21)),
+                    "idx_orders_created_at_id");
+            Map<String, Object> customer = jdbc.queryForMap("select created_at, id from customers where id = ?", SEED_ID + SEED_CUSTOMERS / 2);
+            assertPlanUses("findPageAfter (clientes)",
+                    () -> customerRepository.findPageAfter(null, null, null,
+                            ((Timestamp) customer.get("created_at")).toLocalDateTime(), (Long) customer.get("id"), PageRequest.of(0, 21)),
+                    "idx_customers_created_at_id");
+        });
+    }
+
+    @Test
+    void productFiltersUseIndexes() {
+        withSeededData(() -> {
+            // Ordenado por nombre con LIMIT: recorrer (status, name, id) filtrando la categoría también es válido
+            Pageable byName = PageRequest.of(0, 20, Sort.by("name"));
+            assertPlanUses("findByFilters",
+                    () -> productRepository.findByFilters(null, "ACTIVO", SEED_ID + 1, byName),
+                    "idx_product_category_status", "idx_product_status_name_id");
+        });
+    }
+
+    @Test
+    void productSearchUsesTrigramIndexes() {
+        Integer trigramIndexes = jdbc.queryForObject(
+                "select count(*) from pg_indexes where indexname in ('idx_product_name_trgm', 'idx_product_sku_trgm')", Integer.class);
+        assumeTrue(trigramIndexes == 2, "Sin pg_trgm (V7 no creó los índices): la búsqueda usa LIKE");
+
+        withSeededData(() -> {
+            // Un fragmento del nombre de un producto cargado: coincide con muy pocas filas
+            String search = jdbc.queryForObject("select substr(name, 10, 8) from product where id = ?", String.class, SEED_ID + 1234);
+            assertPlanUses("searchByRelevance",
+                    () -> productRepository.searchByRelevance(search, "ACTIVO", null, PageRequest.of(0, 20)),
+                    "idx_product_name_trgm", "idx_product_sku_trgm");
+        });
+    }
+
+    /**
+     * Carga los datos, actualiza las estadísticas y ejecuta las comprobaciones en una sola transacción
+     * que se revierte: las demás pruebas no ven estas filas
+     */
+    private void withSeededData(Runnable checks) {
+        transactionTemplate.executeWithoutResult(status -> {
+            seed();
+            checks.run();
+            status.setRollbackOnly();
+        });
+    }
+
+    /**
+     * Dos años de órdenes (3 por cliente, 2 items cada una) con la mezcla de estados de una tienda en marcha
+     */
+    private void seed() {
+        jdbc.update("""
+                insert into category (id, created_at, name)
+                select ? + g, now(), 'Categoría ' || g from generate_series(1, 20) g
+                """, SEED_ID);
+        jdbc.update("""
+                insert into product (id, created_at, name, price, qty_stock, sku, status, category_id)
+                select ? + g, now(), 'Producto ' || md5(g::text), 10 + g % 500, 100, 'SEED-' || g,
+                       case when g % 10 = 0 then 'INACTIVO' else 'ACTIVO' end, ? + 1 + g % 20
+                from generate_series(1, ?) g
+                """, SEED_ID, SEED_ID, SEED_PRODUCTS);
+        jdbc.update("""
+                insert into customers (id, created_at, customer_type, document_number, document_type, email,
+                                       first_name, last_name, phone_number)
+                select ? + g, timestamp '2024-01-01' + g * interval '1 hour', 'NATURAL', 'S' || g, 'DNI',
+                       'seed' || g || '@example.com', 'Nombre' || g, 'Apellido' || g, '9' || lpad(g::text, 8, '0')
+                from generate_series(1, ?) g
+                """, SEED_ID, SEED_CUSTOMERS);
+        jdbc.update("""
+                insert into orders (id, created_at, updated_at, code, delivery_type, discount, shipping_cost, status,
+                                    subtotal, total, customer_id)
+                select ? + g, ts, ts + interval '1 hour', 'SEED-' || g, 'RECOJO_EN_TIENDA', 0, 0,
+                       case when g % 10 < 4 then 'CONFIRMADO' when g % 10 < 7 then 'ENTREGADO'
+                            when g % 10 = 7 then 'ENVIADO' when g % 10 = 8 then 'PENDIENTE' else 'CANCELADO' end,
+                       100, 100, ? + 1 + g % ?
+                from generate_series(1, ?) g,
+                     lateral (select timestamp '2024-01-01' + g * (interval '730 days' / ?)) t(ts)
+                """, SEED_ID, SEED_ID, SEED_CUSTOMERS, SEED_ORDERS, SEED_ORDERS);
+        jdbc.update("""
+                insert into order_items (id, quantity, unit_price, order_id, product_id)
+                select ? + g, 1, 50, ? + 1 + g % ?, ? + 1 + (g * 7919) % ?
+                from generate_series(1, ?) g
+                """, SEED_ID, SEED_ID, SEED_ORDERS, SEED_ID, SEED_PRODUCTS, SEED_ORDERS * 2);
+        // Las filas recién insertadas quedan en la lista pendiente de los índices GIN (trigram) hasta el
+        // próximo VACUUM, y el planificador los descarta por caros; en producción eso lo resuelve autovacuum
+        jdbc.queryForList("""
+                select gin_clean_pending_list(c.oid::regclass) from pg_class c join pg_am a on a.oid = c.relam
+                where a.amname = 'gin' and c.relname in ('idx_product_name_trgm', 'idx_product_sku_trgm')
+                """);
+        jdbc.execute("ANALYZE category, product, customers, orders, order_items");
+    }
+
+    /**
+     * Revisa la consulta principal del método: debe usar alguno de los índices esperados. El COUNT de las paginadas solo se registra: contar muchas filas con
+     * Seq Scan puede ser el plan correcto. Las cargas posteriores de relaciones por ID (factura,
+     * categoría) van por clave primaria o única y no son parte del filtro.
+     */
+    private void assertPlanUses(String name, Runnable query, String... expectedIndexes) {
+        // Dentro de la transacción de withSeededData, como en los servicios: además, las columnas
+        // LOB (oid) de invoices solo se leen dentro de una
+        List<RecordedStatement> statements = SqlStatementRecorder.capture(query);
+        assertThat(statements).as(name).isNotEmpty();
+
+        String mainPlan = explain(name, statements.get(0));
+        assertThat(mainPlan).as("%s no usa %s:%n%s", name, List.of(expectedIndexes), mainPlan)
+                .containsAnyOf(expectedIndexes);
+
+        statements.stream()
+                .skip(1)
+                .filter(statement -> statement.sql().startsWith("select count("))
+                .forEach(count -> explain(name + " (COUNT)", count));
+    }
+
+    private String explain(String name, RecordedStatement statement) {
+        String plan = String.join("\n", explain(statement));
+        log.info("Plan de {}:\n{}\n{}", name, statement.sql(), plan);
+        return plan;
+    }
+
+    private List<String> explain(RecordedStatement statement) {
+        return jdbc.execute((ConnectionCallback<List<String>>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+                statement.bindTo(explain);
+                List<String> plan = new ArrayList<>();
+                try (ResultSet rows = explain.executeQuery()) {
+                    while (rows.next()) {
+                        plan.add(rows.getString(1));
+                    }
+                }
+                return plan;
+            }
+        });
+    }
+}
@@ -0,0 +1,104 @@
+package com.pixelpro.dashboard;
+
+import com.pixelpro.dashboard.config.DashboardConfig;
+import com.pixelpro.dashboard.service.DashboardAggregateService;
+import com.pixelpro.orders.entity.enums.OrderStatus;
+import com.pixelpro.orders.event.OrderStatusChangedEvent;
+import com.pixelpro.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Actualización incremental que llega después de una reconciliación: si la foto de la reconciliación
+ * ya incluía el cambio se descarta; si no, se aplica sobre los agregados recalculados.
+ */
+class DashboardAggregateReconcileIT extends PostgresIntegrationTest {
+
+    @Autowired
+    private DashboardAggregateService dashboardAggregateService;
+
+    @Autowired
+    @Qualifier(DashboardConfig.AGGREGATE_EXECUTOR)
+    private ThreadPoolTaskExecutor aggregateExecutor;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Long orderId;
+    private OrderStatus originalStatus;
+    private OrderStatus newStatus;
+
+    @BeforeEach
+    void pickOrder() throws InterruptedException {
+        awaitAggregates();
+        orderId = jdbc.queryForObject("select id from orders order by id limit 1", Long.class);
+        originalStatus = OrderStatus.valueOf(jdbc.queryForObject("select status from orders where id = ?", String.class, orderId));
+        newStatus = originalStatus == OrderStatus.CANCELADO ? OrderStatus.CONFIRMADO : OrderStatus.CANCELADO;
+    }
+
+    @AfterEach
+    void restoreOrder() {
+        jdbc.update("update orders set status = ? where id = ?", originalStatus.name(), orderId);
+        dashboardAggregateService.rebuild();
+    }
+
+    @Test
+    void changeAlreadyInRebuildSnapshotIsNotCountedTwice() throws InterruptedException {
+        // La orden cambió de estado antes de la reconciliación, pero su actualización llega después
+        jdbc.update("update orders set status = ? where id = ?", newStatus.name(), orderId);
+        dashboardAggregateService.rebuild();
+        Map<String, Long> rebuilt = orderCountsByStatus();
+
+        dashboardAggregateService.onOrderStatusChanged(OrderStatusChangedEvent.changed(orderId, originalStatus, newStatus));
+        awaitAggregates();
+
+        assertThat(orderCountsByStatus()).isEqualTo(rebuilt);
+    }
+
+    @Test
+    void changeAfterRebuildSnapshotIsApplied() throws InterruptedException {
+        dashboardAggregateService.rebuild();
+        Map<String, Long> expected = new HashMap<>(orderCountsByStatus());
+        expected.merge(originalStatus.name(), -1L, Long::sum);
+        expected.merge(newStatus.name(), 1L, Long::sum);
+
+        jdbc.update("update orders set status = ? where id = ?", newStatus.name(), orderId);
+        dashboardAggregateService.onOrderStatusChanged(OrderStatusChangedEvent.changed(orderId, originalStatus, newStatus));
+        awaitAggregates();
+
+        Map<String, Long> actual = new HashMap<>(orderCountsByStatus());
+        actual.values().removeIf(count -> count == 0);
+        expected.values().removeIf(count -> count == 0);
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    private Map<String, Long> orderCountsByStatus() {
+        Map<String, Long> counts = new HashMap<>();
+        jdbc.query("select status, order_count from dashboard_order_status_totals",
+                rs -> { counts.put(rs.getString(1), rs.getLong(2)); });
+        return counts;
+    }
+
+    /**
+     * Las actualizaciones corren en el hilo de agregados (@Async): espera a que se vacíe su cola
+     */
+    private void awaitAggregates() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (aggregateExecutor.getQueueSize() == 0 && aggregateExecutor.getActiveCount() == 0) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("La cola de agregados del dashboard no se vació");
+    }
+}
@@ -0,0 +1,48 @@
+package com.pixelpro.dashboard;
+
+import com.pixelpro.dashboard.service.DashboardQueryService;
+import com.pixelpro.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Una consulta del dashboard que no termina a tiempo la cancela PostgreSQL (timeout de la transacción),
+ * en vez de seguir ocupando la conexión después de que el dashboard la dio por perdida.
+ */
+@TestPropertySource(properties = "app.dashboard.query-timeout=1s")
+class DashboardQueryTimeoutIT extends PostgresIntegrationTest {
+
+    @Autowired
+    private DashboardQueryService dashboardQueryService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void blockedQueryIsCancelledAtTheTimeout() throws Exception {
+        // Otra transacción bloquea la tabla: el COUNT de productos espera hasta que lo cancelen
+        try (Connection locker = dataSource.getConnection()) {
+            locker.setAutoCommit(false);
+            try (Statement lock = locker.createStatement()) {
+                lock.execute("LOCK TABLE product IN ACCESS EXCLUSIVE MODE");
+            }
+
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> dashboardQueryService.countProducts())
+                    .isInstanceOf(QueryTimeoutException.class);
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+
+            locker.rollback();
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.pixelpro.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pixelpro.billing.gateway.FakePaymentGateway;
+import com.pixelpro.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga de punta a punta: levanta la aplicación con el perfil loadtest (Mercado Pago y Cloudinary
+ * simulados) sobre PostgreSQL y cada usuario virtual (un virtual thread) repite
+ * catálogo -> detalle -> login -> checkout -> webhook hasta agotar la duración.
+ * Reporta throughput y percentiles por paso y cuántas órdenes confirmó el worker de webhooks;
+ * falla si la tasa de error supera el máximo o quedan webhooks sin procesar.
+ * <p>
+ * No corre con el resto de pruebas de integración (etiqueta loadtest):
+ * mvn -Ploadtest verify -Dloadtest.users=100 -Dloadtest.duration-seconds=120
+ * <p>
+ * Con -Dtest.db.url=jdbc:postgresql://... usa esa base en lugar de levantar un contenedor.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CheckoutLoadIT extends PostgresIntegrationTest {
+
+    private static final String PASSWORD = "LoadTest#2025";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper json = new ObjectMapper();
+
+    private final int users = Integer.getInteger("loadtest.users", 50);
+    private final Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 15));
+    private final Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 60));
+    private final Duration drainTimeout = Duration.ofSeconds(Integer.getInteger("loadtest.drain-seconds", 60));
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+
+    private final StepStats browse = new StepStats("catalogo");
+    private final StepStats product = new StepStats("detalle");
+    private final StepStats login = new StepStats("login");
+    private final StepStats checkout = new StepStats("checkout");
+    private final StepStats webhook = new StepStats("webhook");
+    private final List<StepStats> steps = List.of(browse, product, login, checkout, webhook);
+    private final LongAdder scenarios = new LongAdder();
+    // Webhooks aceptados en toda la corrida (calentamiento incluido): órdenes que deben quedar confirmadas
+    private final LongAdder acceptedWebhooks = new LongAdder();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Value("${mp.webhook.key}")
+    private String webhookSecret;
+
+    private String baseUrl;
+    private SecretKeySpec webhookKey;
+    private List<Long> productIds;
+    private volatile long measureFromNanos;
+
+    @Test
+    void checkoutFlowUnderLoad() throws Exception {
+        baseUrl = "http://localhost:" + port;
+        webhookKey = new SecretKeySpec(webhookSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+
+        // Stock de sobra: la prueba mide el checkout, no los rechazos por falta de stock
+        jdbc.update("update product set qty_stock = 1000000 where status = 'ACTIVO'");
+        productIds = jdbc.queryForList("select id from product where status = 'ACTIVO'", Long.class);
+        assertThat(productIds).as("productos activos para la prueba").isNotEmpty();
+
+        List<String> emails = registerUsers();
+        // IDs por secuencia: las órdenes de la corrida son las posteriores a este ID
+        Long lastOrderId = jdbc.queryForObject("select coalesce(max(id), 0) from orders", Long.class);
+
+        System.out.printf("%nPrueba de carga: %d usuarios, calentamiento %d s, medicion %d s contra %s%n",
+                users, warmup.toSeconds(), duration.toSeconds(), baseUrl);
+
+        long start = System.nanoTime();
+        measureFromNanos = start + warmup.toNanos();
+        long deadline = measureFromNanos + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String email : emails) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        runScenario(email);
+                    }
+                });
+            }
+        }
+        double measuredSeconds = (System.nanoTime() - measureFromNanos) / 1_000_000_000.0;
+
+        DrainResult drain = awaitConfirmations(lastOrderId, acceptedWebhooks.sum());
+
+        assertThat(report(measuredSeconds, drain))
+                .as("tasa de error > %s o webhooks sin procesar (ver el reporte)", maxErrorRate)
+                .isTrue();
+    }
+
+    private List<String> registerUsers() throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<Future<String>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> registerUser(runId, index)));
+            }
+        }
+        List<String> emails = new ArrayList<>();
+        for (Future<String> future : futures) {
+            emails.add(future.get());
+        }
+        return emails;
+    }
+
+    private String registerUser(String runId, int index) throws Exception {
+        String email = "carga-" + runId + "-" + index + "@pixelpro.test";
+        HttpResponse<String> registered = post("/api/auth/register", Map.of("email", email, "password", PASSWORD), null);
+        expectSuccess(registered, "registro de " + email);
+        String token = json.readTree(registered.body()).path("token").asText();
+
+        int document = ThreadLocalRandom.current().nextInt(10_000_000, 99_999_999);
+        HttpResponse<String> profile = post("/api/store/account/profile", Map.of(
+                "firstName", "Carga",
+                "lastName", "Usuario " + index,
+                "phoneNumber", String.valueOf(900_000_000 + index),
+                "documentType", "DNI",
+                "documentNumber", String.valueOf(document)
+        ), token);
+        expectSuccess(profile, "perfil de " + email);
+        return email;
+    }
+
+    /**
+     * Un recorrido completo; si un paso falla se abandona el resto (como lo haría el usuario)
+     */
+    private void runScenario(String email) {
+        try {
+            Long productId = productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+
+            if (timed(browse, () -> get("/api/public/products/scroll?size=20")) == null) return;
+            if (timed(product, () -> get("/api/public/products/" + productId)) == null) return;
+
+            HttpResponse<String> loggedIn = timed(login, () -> post("/api/auth/login",
+                    Map.of("email", email, "password", PASSWORD), null));
+            if (loggedIn == null) return;
+            String token = json.readTree(loggedIn.body()).path("token").asText();
+
+            HttpResponse<String> placed = timed(checkout, () -> post("/api/store/orders", Map.of(
+                    "deliveryType", "RECOJO_EN_TIENDA",
+                    "paymentMethod", "MERCADO_PAGO",
+                    "items", List.of(Map.of("productId", productId, "quantity", 1))
+            ), token));
+            if (placed == null) return;
+
+            // El fake codifica el ID del pago en el ID de preferencia (ver FakePaymentGateway)
+            String preferenceId = json.readTree(placed.body()).path("preferenceId").asText();
+            String paymentId = preferenceId.substring(FakePaymentGateway.PREFERENCE_PREFIX.length());
+            if (timed(webhook, () -> sendWebhook(paymentId)) == null) return;
+            acceptedWebhooks.increment();
+
+            if (System.nanoTime() >= measureFromNanos) {
+                scenarios.increment();
+            }
+        } catch (Exception e) {
+            // Respuestas inesperadas: ya contadas como error del paso o no medibles
+        }
+    }
+
+    private interface Call {
+        HttpResponse<String> execute() throws Exception;
+    }
+
+    /**
+     * Ejecuta y cronometra un paso. Retorna null si falló (error HTTP o de red).
+     */
+    private HttpResponse<String> timed(StepStats stats, Call call) {
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = call.execute();
+        } catch (Exception e) {
+            response = null;
+        }
+        int status = response != null ? response.statusCode() : 0;
+        boolean success = status / 100 == 2;
+        if (start >= measureFromNanos) {
+            stats.record(System.nanoTime() - start, status);
+        }
+        return success ? response : null;
+    }
+
+    private HttpResponse<String> sendWebhook(String paymentId) throws Exception {
+        String requestId = UUID.randomUUID().toString();
+        String ts = String.valueOf(System.currentTimeMillis());
+        String manifest = "id:" + paymentId + ";request-id:" + requestId + ";ts:" + ts + ";";
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(webhookKey);
+        String v1 = HexFormat.of().formatHex(mac.doFinal(manifest.getBytes(StandardCharsets.UTF_8)));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/payments/webhook"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("x-request-id", requestId)
+                .header("x-signature", "ts=" + ts + ",v1=" + v1)
+                .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(Map.of(
+                        "type", "payment",
+                        "action", "payment.created",
+                        "data", Map.of("id", paymentId)
+                ))))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, Object body, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void expectSuccess(HttpResponse<String> response, String action) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Falló " + action + " (HTTP " + response.statusCode() + "): " + response.body());
+        }
+    }
+
+    private record DrainResult(long confirmed, long expected, double seconds) {
+    }
+
+    /**
+     * Espera a que el worker procese los webhooks encolados (las órdenes de la corrida pasan a CONFIRMADO)
+     */
+    private DrainResult awaitConfirmations(Long lastOrderId, long expected) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + drainTimeout.toNanos();
+        long confirmed;
+        do {
+            Long count = jdbc.queryForObject(
+                    "select count(*) from orders where status = 'CONFIRMADO' and id > ?", Long.class, lastOrderId);
+            confirmed = count != null ? count : 0;
+            if (confirmed >= expected) {
+                break;
+            }
+            Thread.sleep(500);
+        } while (System.nanoTime() < deadline);
+        return new DrainResult(confirmed, expected, (System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+    private boolean report(double measuredSeconds, DrainResult drain) {
+        System.out.printf("%n%-10s %9s %7s %9s %9s %9s %9s %9s%n",
+                "paso", "ok", "error", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        boolean passed = true;
+        List<StepStats.Summary> summaries = steps.stream().map(step -> step.summarize(measuredSeconds)).toList();
+        for (StepStats.Summary s : summaries) {
+            System.out.printf("%-10s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    s.step(), s.ok(), s.errors(), s.throughput(), s.p50Millis(), s.p95Millis(), s.p99Millis(), s.maxMillis());
+            if (s.errorRate() > maxErrorRate) {
+                passed = false;
+            }
+        }
+        for (StepStats.Summary s : summaries) {
+            if (!s.errorsByStatus().isEmpty()) {
+                System.out.printf("Errores de %s por codigo HTTP (0 = sin respuesta): %s%n", s.step(), s.errorsByStatus());
+            }
+        }
+        System.out.printf("%nEscenarios completos: %d (%.1f/s)%n", scenarios.sum(), scenarios.sum() / measuredSeconds);
+        System.out.printf("Ordenes confirmadas por webhook: %d de %d (espera de %.1f s tras la carga)%n",
+                drain.confirmed(), drain.expected(), drain.seconds());
+        if (drain.confirmed() < drain.expected()) {
+            passed = false;
+        }
+        System.out.println(passed ? "RESULTADO: OK" : "RESULTADO: FALLO (tasa de error > " + maxErrorRate + " o webhooks sin procesar)");
+        return passed;
+    }
+}
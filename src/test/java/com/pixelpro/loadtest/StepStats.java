@@ -0,0 +1,74 @@
+package com.pixelpro.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias de un paso del escenario. Guarda cada muestra para calcular percentiles exactos
+ * (una corrida de minutos son decenas de miles de muestras por paso).
+ */
+final class StepStats {
+
+    private final String name;
+    private final ConcurrentLinkedQueue<Long> latenciesNanos = new ConcurrentLinkedQueue<>();
+    private final LongAdder errors = new LongAdder();
+    // Errores por código HTTP (0 = sin respuesta: timeout o error de conexión)
+    private final Map<Integer, LongAdder> errorsByStatus = new ConcurrentHashMap<>();
+
+    StepStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void record(long elapsedNanos, int status) {
+        if (status / 100 == 2) {
+            latenciesNanos.add(elapsedNanos);
+        } else {
+            errors.increment();
+            errorsByStatus.computeIfAbsent(status, k -> new LongAdder()).increment();
+        }
+    }
+
+    Summary summarize(double measuredSeconds) {
+        long[] sorted = latenciesNanos.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        Map<Integer, Long> byStatus = new TreeMap<>();
+        errorsByStatus.forEach((status, count) -> byStatus.put(status, count.sum()));
+        return new Summary(
+                name,
+                sorted.length,
+                errors.sum(),
+                byStatus,
+                sorted.length / measuredSeconds,
+                percentileMillis(sorted, 0.50),
+                percentileMillis(sorted, 0.95),
+                percentileMillis(sorted, 0.99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0
+        );
+    }
+
+    // Percentil por rango más cercano
+    private static double percentileMillis(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    record Summary(String step, long ok, long errors, Map<Integer, Long> errorsByStatus, double throughput,
+                   double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+
+        double errorRate() {
+            long total = ok + errors;
+            return total == 0 ? 0 : (double) errors / total;
+        }
+    }
+}
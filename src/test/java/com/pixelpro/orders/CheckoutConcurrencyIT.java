@@ -0,0 +1,150 @@
+package com.pixelpro.orders;
+
+import com.pixelpro.billing.entity.enums.PaymentMethod;
+import com.pixelpro.common.exception.ConflictException;
+import com.pixelpro.orders.dto.CheckoutRequestDto;
+import com.pixelpro.orders.dto.CheckoutRequestDto.CartItemDto;
+import com.pixelpro.orders.entity.enums.DeliveryType;
+import com.pixelpro.orders.service.OrderService;
+import com.pixelpro.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Muchos checkouts simultáneos del mismo producto: la reserva de stock (UPDATE condicional)
+ * no debe vender más unidades de las que hay, ni bloquearse cuando los carritos traen
+ * los mismos productos en distinto orden.
+ */
+class CheckoutConcurrencyIT extends PostgresIntegrationTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private List<String> emails;
+    private List<Long> productIds;
+    private List<Integer> originalStock;
+
+    @BeforeEach
+    void pickCustomersAndProducts() {
+        emails = jdbc.queryForList("select email from customers order by id", String.class);
+        productIds = jdbc.queryForList("select id from product where status = 'ACTIVO' order by id limit 2", Long.class);
+        originalStock = productIds.stream()
+                .map(id -> jdbc.queryForObject("select qty_stock from product where id = ?", Integer.class, id))
+                .toList();
+    }
+
+    @AfterEach
+    void restoreStock() {
+        for (int i = 0; i < productIds.size(); i++) {
+            jdbc.update("update product set qty_stock = ? where id = ?", originalStock.get(i), productIds.get(i));
+        }
+    }
+
+    @Test
+    void concurrentCheckoutsNeverOversellOneProduct() throws Exception {
+        Long productId = productIds.get(0);
+        int stock = 10;
+        setStock(productId, stock);
+
+        List<Boolean> results = hammer(THREADS * 2, attempt -> List.of(new CartItemDto(productId, 1)));
+
+        assertThat(results).filteredOn(Boolean::booleanValue).hasSize(stock);
+        assertThat(stockOf(productId)).isZero();
+    }
+
+    @Test
+    void cartsWithProductsInOppositeOrderDoNotDeadlock() throws Exception {
+        Long first = productIds.get(0);
+        Long second = productIds.get(1);
+        int stock = 20;
+        setStock(first, stock);
+        setStock(second, stock);
+
+        // Mitad de los carritos (A, B) y mitad (B, A), 2 unidades de cada uno
+        List<Boolean> results = hammer(THREADS, attempt -> attempt % 2 == 0
+                ? List.of(new CartItemDto(first, 2), new CartItemDto(second, 2))
+                : List.of(new CartItemDto(second, 2), new CartItemDto(first, 2)));
+
+        long sold = results.stream().filter(Boolean::booleanValue).count();
+        assertThat(sold).isEqualTo(stock / 2);
+        assertThat(stockOf(first)).isZero();
+        assertThat(stockOf(second)).isZero();
+    }
+
+    /**
+     * Lanza todos los checkouts a la vez (recojo en tienda, pago en efectivo: sin llamadas externas).
+     * Devuelve true por cada checkout aceptado y false por cada rechazo por stock; cualquier otra
+     * excepción (deadlock, violación de unicidad...) hace fallar la prueba.
+     */
+    private List<Boolean> hammer(int attempts, CartFactory carts) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int i = 0; i < attempts; i++) {
+                String email = emails.get(i % emails.size());
+                CheckoutRequestDto request = new CheckoutRequestDto(
+                        null, DeliveryType.RECOJO_EN_TIENDA, PaymentMethod.PAGO_EFECTIVO, carts.cart(i));
+                futures.add(executor.submit(checkout(start, email, request)));
+            }
+            start.countDown();
+
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                try {
+                    results.add(future.get(60, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    throw new AssertionError("Checkout falló por un motivo distinto a la falta de stock", e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Callable<Boolean> checkout(CountDownLatch start, String email, CheckoutRequestDto request) {
+        return () -> {
+            start.await();
+            try {
+                orderService.processCheckout(email, request);
+                return true;
+            } catch (ConflictException e) {
+                return false;
+            }
+        };
+    }
+
+    private void setStock(Long productId, int stock) {
+        jdbc.update("update product set qty_stock = ? where id = ?", stock, productId);
+    }
+
+    private int stockOf(Long productId) {
+        return jdbc.queryForObject("select qty_stock from product where id = ?", Integer.class, productId);
+    }
+
+    @FunctionalInterface
+    private interface CartFactory {
+        List<CartItemDto> cart(int attempt);
+    }
+}
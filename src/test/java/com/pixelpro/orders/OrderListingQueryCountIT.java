@@ -0,0 +1,93 @@
+package com.pixelpro.orders;
+
+import com.pixelpro.dashboard.service.DashboardQueryService;
+import com.pixelpro.orders.dto.OrderDto;
+import com.pixelpro.orders.service.OrderService;
+import com.pixelpro.support.PostgresIntegrationTest;
+import com.pixelpro.support.SqlStatementRecorder;
+import com.pixelpro.support.SqlStatementRecorder.RecordedStatement;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Los listados de órdenes se cargan en un número fijo y pequeño de consultas, sin importar
+ * cuántas órdenes tenga la página (sin N+1 por cliente, dirección, items, pagos o factura).
+ */
+class OrderListingQueryCountIT extends PostgresIntegrationTest {
+
+    // IDs de la página + COUNT + órdenes con relaciones + pagos + direcciones del cliente
+    // + cuentas de usuario de los clientes (una sola carga por lotes)
+    private static final int MAX_QUERIES_PER_PAGE = 6;
+
+    // Listado admin (proyección a OrderSummaryDto): la página + COUNT
+    private static final int MAX_SUMMARY_QUERIES_PER_PAGE = 2;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt");
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private DashboardQueryService dashboardQueryService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void adminListingRunsSameQueriesForAnyPageSize() {
+        List<RecordedStatement> smallPage = SqlStatementRecorder.capture(() -> assertThat(
+                orderService.getOrderSummaries(null, null, null, PageRequest.of(0, 2, NEWEST_FIRST)).getContent()).hasSize(2));
+        List<RecordedStatement> largePage = SqlStatementRecorder.capture(() -> assertThat(
+                orderService.getOrderSummaries(null, null, null, PageRequest.of(0, 12, NEWEST_FIRST)).getContent()).hasSize(12));
+
+        assertThat(largePage).hasSize(smallPage.size());
+        assertThat(largePage.size()).as("%s", sqlOf(largePage)).isLessThanOrEqualTo(MAX_SUMMARY_QUERIES_PER_PAGE);
+    }
+
+    @Test
+    void customerListingRunsSameQueriesForAnyPageSize() {
+        // Cliente con más órdenes de los datos iniciales (entre 1 y 3 por cliente)
+        String email = jdbc.queryForObject("""
+                select c.email from customers c join orders o on o.customer_id = c.id
+                group by c.email order by count(*) desc, c.email limit 1
+                """, String.class);
+        int orders = jdbc.queryForObject(
+                "select count(*) from orders o join customers c on c.id = o.customer_id where c.email = ?", Integer.class, email);
+        assertThat(orders).as("órdenes de %s", email).isGreaterThan(1);
+
+        List<RecordedStatement> onePerPage = countQueries(() -> orderService.getMyOrders(email, null, PageRequest.of(0, 1, NEWEST_FIRST)), 1);
+        List<RecordedStatement> allInOnePage = countQueries(() -> orderService.getMyOrders(email, null, PageRequest.of(0, orders, NEWEST_FIRST)), orders);
+
+        assertThat(allInOnePage).hasSize(onePerPage.size());
+        assertThat(allInOnePage.size()).as("%s", sqlOf(allInOnePage)).isLessThanOrEqualTo(MAX_QUERIES_PER_PAGE);
+    }
+
+    @Test
+    void dashboardLatestOrdersLoadInFixedQueries() {
+        List<RecordedStatement> queries = SqlStatementRecorder.capture(() -> assertThat(dashboardQueryService.getLatestOrders()).isNotEmpty());
+
+        assertThat(queries.size()).as("%s", sqlOf(queries)).isLessThanOrEqualTo(MAX_QUERIES_PER_PAGE);
+    }
+
+    private static List<RecordedStatement> countQueries(Supplier<Page<OrderDto>> listing, int expectedOrders) {
+        return SqlStatementRecorder.capture(() -> {
+            Page<OrderDto> page = listing.get();
+            assertThat(page.getContent()).hasSize(expectedOrders);
+            // El mapeo a DTO recorre todas las relaciones: si alguna quedara lazy, fallaría o consultaría aquí
+            assertThat(page.getContent()).allSatisfy(order -> assertThat(order.items()).isNotEmpty());
+        });
+    }
+
+    private static List<String> sqlOf(List<RecordedStatement> statements) {
+        return statements.stream().map(RecordedStatement::sql).toList();
+    }
+}
@@ -0,0 +1,74 @@
+package com.pixelpro.support;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Base de las pruebas de integración (*IT, las ejecuta failsafe en mvn verify): levanta la aplicación
+ * completa contra un PostgreSQL real, con Flyway y los datos iniciales, porque lo que se prueba
+ * (planes de ejecución, bloqueos, número de consultas) depende del motor.
+ * <p>
+ * Con -Dtest.db.url=jdbc:postgresql://... usa esa base; si no, un contenedor de Testcontainers
+ * compartido por todas las clases. Sin Docker ni URL las pruebas se omiten.
+ * El perfil loadtest reemplaza Mercado Pago y Cloudinary por las implementaciones simuladas.
+ */
+@SpringBootTest(properties = "spring.devtools.restart.enabled=false")
+@ActiveProfiles("loadtest")
+public abstract class PostgresIntegrationTest {
+
+    private static final String EXTERNAL_URL = System.getProperty("test.db.url", "");
+
+    private static PostgreSQLContainer<?> postgres;
+
+    @BeforeAll
+    static void requireDatabase() {
+        assumeTrue(!EXTERNAL_URL.isBlank() || DockerClientFactory.instance().isDockerAvailable(),
+                "Sin Docker ni -Dtest.db.url: se omiten las pruebas de integración");
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void recordStatements() {
+        SqlStatementRecorder.install(dataSource);
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        if (!EXTERNAL_URL.isBlank()) {
+            registry.add("spring.datasource.url", () -> EXTERNAL_URL);
+            registry.add("spring.datasource.username", () -> System.getProperty("test.db.username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("test.db.password", "postgres"));
+            return;
+        }
+        PostgreSQLContainer<?> container = startContainer();
+        registry.add("spring.datasource.url", container::getJdbcUrl);
+        registry.add("spring.datasource.username", container::getUsername);
+        registry.add("spring.datasource.password", container::getPassword);
+    }
+
+    /**
+     * Un solo contenedor para toda la ejecución (se detiene al terminar la JVM), igual que el
+     * contexto de Spring que comparten las clases de prueba
+     */
+    private static synchronized PostgreSQLContainer<?> startContainer() {
+        if (postgres == null) {
+            postgres = new PostgreSQLContainer<>(DockerImageName.parse(System.getProperty("test.postgres-image", "postgres:16-alpine")));
+            postgres.start();
+        }
+        return postgres;
+    }
+}
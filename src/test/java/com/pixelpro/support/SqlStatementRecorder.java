@@ -0,0 +1,95 @@
+package com.pixelpro.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Listener de datasource-proxy (el mismo proxy de QueryTimingConfig) que registra las sentencias
+ * ejecutadas por el hilo actual mientras dura {@link #capture(Runnable)}, con sus parámetros.
+ * Es por hilo para que los procesos en segundo plano (worker de webhooks, agregados del dashboard)
+ * no alteren lo registrado.
+ */
+public final class SqlStatementRecorder implements QueryExecutionListener {
+
+    /**
+     * Sentencia ejecutada y los parámetros con que se ejecutó (del primer elemento, si fue un lote)
+     */
+    public record RecordedStatement(String sql, List<ParameterSetOperation> parameters) {
+
+        /**
+         * Vuelve a asignar los mismos parámetros en otra sentencia con los mismos '?' (p. ej. "EXPLAIN " + sql)
+         */
+        public void bindTo(PreparedStatement statement) throws SQLException {
+            for (ParameterSetOperation parameter : parameters) {
+                try {
+                    parameter.getMethod().invoke(statement, parameter.getArgs());
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("No se pudo asignar el parámetro " + parameter.getArgs()[0], e);
+                }
+            }
+        }
+    }
+
+    private static final SqlStatementRecorder INSTANCE = new SqlStatementRecorder();
+    private static final Set<DataSource> INSTALLED = Collections.newSetFromMap(new WeakHashMap<>());
+    private static final ThreadLocal<List<RecordedStatement>> CAPTURED = new ThreadLocal<>();
+
+    private SqlStatementRecorder() {
+    }
+
+    /**
+     * Registra el listener en el DataSource de la aplicación (una sola vez por DataSource).
+     * Requiere el proxy de QueryTimingConfig (app.db.query-timing.enabled=true, el valor por defecto).
+     */
+    public static synchronized void install(DataSource dataSource) {
+        if (!(dataSource instanceof ProxyDataSource proxy)) {
+            throw new IllegalStateException("El DataSource no pasa por datasource-proxy (app.db.query-timing.enabled=false?)");
+        }
+        if (INSTALLED.add(proxy)) {
+            proxy.addListener(INSTANCE);
+        }
+    }
+
+    /**
+     * Ejecuta la acción y devuelve las sentencias que ejecutó este hilo, en orden
+     */
+    public static List<RecordedStatement> capture(Runnable action) {
+        List<RecordedStatement> statements = new ArrayList<>();
+        CAPTURED.set(statements);
+        try {
+            action.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Solo interesa lo ejecutado
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<RecordedStatement> statements = CAPTURED.get();
+        if (statements == null) {
+            return;
+        }
+        for (QueryInfo query : queryInfoList) {
+            List<List<ParameterSetOperation>> parameters = query.getParametersList();
+            statements.add(new RecordedStatement(query.getQuery(), parameters.isEmpty() ? List.of() : List.copyOf(parameters.get(0))));
+        }
+    }
+}